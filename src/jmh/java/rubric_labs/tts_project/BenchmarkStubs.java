@@ -0,0 +1,202 @@
+package rubric_labs.tts_project;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.polly.PollyClient;
+import software.amazon.awssdk.services.polly.PollyServiceClientConfiguration;
+import software.amazon.awssdk.services.polly.model.OutputFormat;
+import software.amazon.awssdk.services.polly.model.SynthesizeSpeechRequest;
+import software.amazon.awssdk.services.polly.model.SynthesizeSpeechResponse;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ServiceClientConfiguration;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Polly / S3 를 대신하는 로컬 스텁과 서비스 조립
+ * - 네트워크 없이 응답 크기만 실제와 비슷하게 만들어 CPU/메모리 비용만 측정
+ */
+final class BenchmarkStubs {
+
+    // 128kbps MP3 기준 글자당 약 70ms → 약 1.1KB
+    private static final int MP3_BYTES_PER_CHAR = 1100;
+    private static final long MS_PER_WORD = 350;
+    private static final int MP3_FRAME_BYTES = 417;
+    private static final byte[] MP3_FRAME_HEADER = {(byte) 0xFF, (byte) 0xFB, (byte) 0x90, 0x00};
+    private static final Pattern MARK = Pattern.compile("<mark name=\"([^\"]+)\"/>");
+
+    // 지표는 메모리 레지스트리에만 기록 (계측 오버헤드도 측정에 포함)
+    static final PipelineMetrics METRICS = new PipelineMetrics(new SimpleMeterRegistry());
+    static final PdfTextExtractor TEXT_EXTRACTOR = new PdfTextExtractor(METRICS);
+    // app.polly.max-in-flight 기본값 (PollyService 와 SynthesisExecutor 가 공유)
+    static final PollyInFlightLimit POLLY_IN_FLIGHT = new PollyInFlightLimit(8);
+    // app.render.image 기본값
+    static final PageImageEncoder IMAGE_ENCODER = new PageImageEncoder("auto", 0.82f, 1600, 0.5, 64, 320, 32, METRICS);
+
+    private BenchmarkStubs() {
+    }
+
+    static PollyService pollyService() {
+        // 메모리 캐시 0 byte, 디스크/S3 캐시 없음 → 매 호출이 스텁까지 도달
+        SynthesisCache cache = new SynthesisCache(new StubS3Client(), 0, "", 0, false, "polly-cache/", "benchmark");
+        return new PollyService(new StubPollyClient(), cache, METRICS, POLLY_IN_FLIGHT, 2800, 8);
+    }
+
+    static S3UploadService s3UploadService() {
+        S3UploadService service = new S3UploadService(new StubS3Client(), new StubS3AsyncClient(), new ObjectMapper(), METRICS);
+        setField(service, "bucketName", "benchmark");
+        setField(service, "region", "ap-northeast-2");
+        setField(service, "uploadConcurrency", 16);
+        return service;
+    }
+
+    /**
+     * MPEG1 Layer III 128kbps 44.1kHz 프레임(417 byte, 약 26ms)을 이어 붙인 MP3 (내용은 난수)
+     * - Mp3Frames 로 자르고 이어 붙일 수 있도록 프레임 헤더만 실제와 같게 만듦
+     */
+    static byte[] fakeMp3(String text) {
+        int frames = Math.max(1, text.length() * MP3_BYTES_PER_CHAR / MP3_FRAME_BYTES);
+        byte[] mp3 = new byte[frames * MP3_FRAME_BYTES];
+        new Random(text.hashCode()).nextBytes(mp3);
+        for (int offset = 0; offset < mp3.length; offset += MP3_FRAME_BYTES) {
+            System.arraycopy(MP3_FRAME_HEADER, 0, mp3, offset, MP3_FRAME_HEADER.length);
+        }
+        return mp3;
+    }
+
+    /**
+     * SSML 의 단어마다 word mark, 문장마다 sentence mark, <mark> 마다 ssml mark 를 만든 JSON lines
+     */
+    static byte[] fakeSpeechMarks(String ssml) {
+        StringBuilder json = new StringBuilder();
+        long time = 0;
+        int offset = 0;
+
+        Matcher matcher = MARK.matcher(ssml);
+        int last = 0;
+        while (true) {
+            boolean found = matcher.find();
+            String part = ssml.substring(last, found ? matcher.start() : ssml.length());
+            String text = part.replaceAll("<[^>]+>", " ").replaceAll("\\s+", " ").trim();
+
+            for (String sentence : text.isEmpty() ? new String[0] : text.split("(?<=[.!?])\\s+")) {
+                json.append(String.format("{\"time\":%d,\"type\":\"sentence\",\"start\":%d,\"end\":%d,\"value\":\"%s\"}%n",
+                        time, offset, offset + sentence.length(), sentence.replace("\"", "\\\"")));
+                int wordOffset = offset;
+                for (String word : sentence.split(" ")) {
+                    json.append(String.format("{\"time\":%d,\"type\":\"word\",\"start\":%d,\"end\":%d,\"value\":\"%s\"}%n",
+                            time, wordOffset, wordOffset + word.length(), word.replace("\"", "\\\"")));
+                    wordOffset += word.length() + 1;
+                    time += MS_PER_WORD;
+                }
+                offset += sentence.length() + 1;
+            }
+
+            if (!found) {
+                break;
+            }
+            json.append(String.format("{\"time\":%d,\"type\":\"ssml\",\"start\":%d,\"end\":%d,\"value\":\"%s\"}%n",
+                    time, matcher.start(), matcher.end(), matcher.group(1)));
+            last = matcher.end();
+        }
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("스텁 설정 실패: " + name, e);
+        }
+    }
+
+    static class StubPollyClient implements PollyClient {
+
+        final AtomicLong calls = new AtomicLong();
+
+        @Override
+        public ResponseInputStream<SynthesizeSpeechResponse> synthesizeSpeech(SynthesizeSpeechRequest request) {
+            calls.incrementAndGet();
+            byte[] body = request.outputFormat() == OutputFormat.JSON
+                    ? fakeSpeechMarks(request.text())
+                    : fakeMp3(request.text());
+            return new ResponseInputStream<>(
+                    SynthesizeSpeechResponse.builder().build(),
+                    AbortableInputStream.create(new ByteArrayInputStream(body)));
+        }
+
+        @Override
+        public String serviceName() {
+            return "polly";
+        }
+
+        @Override
+        public PollyServiceClientConfiguration serviceClientConfiguration() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    static class StubS3Client implements S3Client {
+
+        @Override
+        public PutObjectResponse putObject(PutObjectRequest request, RequestBody body) {
+            return PutObjectResponse.builder().eTag("stub").build();
+        }
+
+        @Override
+        public String serviceName() {
+            return "s3";
+        }
+
+        @Override
+        public S3ServiceClientConfiguration serviceClientConfiguration() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    static class StubS3AsyncClient implements S3AsyncClient {
+
+        @Override
+        public CompletableFuture<PutObjectResponse> putObject(PutObjectRequest request, AsyncRequestBody body) {
+            return CompletableFuture.completedFuture(PutObjectResponse.builder().eTag("stub").build());
+        }
+
+        @Override
+        public String serviceName() {
+            return "s3";
+        }
+
+        @Override
+        public S3ServiceClientConfiguration serviceClientConfiguration() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package rubric_labs.tts_project;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PDF → EPUB 전체 파이프라인 (Polly / S3 는 로컬 스텁)
+ * - 한 번 실행이 길기 때문에 반복 횟수를 줄임
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class ConversionPipelineBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int pages;
+
+    private PageRasterizer rasterizer;
+    private PollyService pollyService;
+    private SynthesisExecutor synthesisExecutor;
+    private EpubConversionService conversionService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PdfMetadataExtractor metadataExtractor = new PdfMetadataExtractor(BenchmarkStubs.METRICS, BenchmarkStubs.TEXT_EXTRACTOR);
+        rasterizer = new PageRasterizer(150, 4, 4, 8, true, BenchmarkStubs.IMAGE_ENCODER, BenchmarkStubs.METRICS);
+        pollyService = BenchmarkStubs.pollyService();
+        synthesisExecutor = new SynthesisExecutor(pollyService, BenchmarkStubs.METRICS, BenchmarkStubs.POLLY_IN_FLIGHT, 16, true, 400, 2800);
+        conversionService = new EpubConversionService(
+                new PdfReader(metadataExtractor, rasterizer, BenchmarkStubs.TEXT_EXTRACTOR),
+                metadataExtractor,
+                synthesisExecutor,
+                BenchmarkStubs.s3UploadService(),
+                BenchmarkStubs.METRICS);
+
+        SyntheticPdfs.get(pages);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        synthesisExecutor.shutdown();
+        pollyService.shutdown();
+        rasterizer.shutdown();
+    }
+
+    /**
+     * /tts/epub/v2/s3 경로 (byte[] 패키징 + 업로드)
+     */
+    @Benchmark
+    public TteApi.ManifestResponse convertToS3() throws IOException {
+        try (PdfDocumentSession session = PdfDocumentSession.open(SyntheticPdfs.get(pages), "benchmark.pdf")) {
+            return conversionService.convertToS3(session, ConversionProgressListener.NONE);
+        }
+    }
+
+    /**
+     * /tts/epub/v2 경로 (페이지 단위 스트리밍, 출력은 버림)
+     */
+    @Benchmark
+    public void writeEpub() throws IOException {
+        try (PdfDocumentSession session = PdfDocumentSession.open(SyntheticPdfs.get(pages), "benchmark.pdf")) {
+            conversionService.writeEpub(session, OutputStream.nullOutputStream());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package rubric_labs.tts_project;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * XHTML / SMIL / OPF 생성과 EPUB ZIP 패키징
+ * - 페이지 텍스트, 음성(스텁 MP3 + SpeechMark), 페이지 이미지는 미리 준비해 두고 빌더 비용만 측정
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EpubBuildBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int pages;
+
+    private BookMetadata metadata;
+    private List<ParagraphSegment> segments;
+    private List<ParagraphTts> ttsList;
+    private List<PageImage> pageImages;
+    private List<PageImage.Format> imageFormats;
+    private String opf;
+    private String containerXml;
+    private String nav;
+    private List<XhtmlBuilder.PageXhtml> pageXhtmls;
+    private List<SmilBuilder.PageSmil> pageSmils;
+    private PollyService pollyService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        PdfMetadataExtractor metadataExtractor = new PdfMetadataExtractor(BenchmarkStubs.METRICS, BenchmarkStubs.TEXT_EXTRACTOR);
+        PageRasterizer rasterizer = new PageRasterizer(150, 1, 1, 1, true, BenchmarkStubs.IMAGE_ENCODER, BenchmarkStubs.METRICS);
+        PdfReader pdfReader = new PdfReader(metadataExtractor, rasterizer, BenchmarkStubs.TEXT_EXTRACTOR);
+
+        PageImage pageImage;
+        try (PdfDocumentSession session = PdfDocumentSession.open(SyntheticPdfs.get(1), "benchmark.pdf")) {
+            metadata = metadataExtractor.extractMetadata(session);
+            pageImage = rasterizer.renderPage(session, 0);
+        } finally {
+            rasterizer.shutdown();
+        }
+
+        pollyService = BenchmarkStubs.pollyService();
+        EpubConversionService conversionService = new EpubConversionService(
+                pdfReader, metadataExtractor, new SynthesisExecutor(pollyService, BenchmarkStubs.METRICS, BenchmarkStubs.POLLY_IN_FLIGHT, 16, true, 400, 2800),
+                BenchmarkStubs.s3UploadService(), BenchmarkStubs.METRICS);
+        segments = conversionService.buildPageSegments(SyntheticPdfs.pageTexts(pages), pages, metadata);
+
+        ttsList = new ArrayList<>(pages);
+        for (ParagraphSegment segment : segments) {
+            ttsList.add(pollyService.synthesizeParagraph(segment, metadata.getVoice()));
+        }
+        pageImages = Collections.nCopies(pages, pageImage);
+        imageFormats = PageImage.formats(pageImages);
+
+        OpfBuilder opfBuilder = new OpfBuilder();
+        opf = opfBuilder.buildOpf(metadata.getBookId(), metadata.getTitle(), metadata.getAuthor(),
+                metadata.getLanguage(), pages, imageFormats);
+        containerXml = opfBuilder.buildContainerXml();
+        nav = new NavBuilder().buildNav(metadata.getTitle(), imageFormats);
+        pageXhtmls = new XhtmlBuilder().buildPageXhtmls(metadata.getTitle(), segments, imageFormats);
+        pageSmils = new SmilBuilder().buildPageSmils(segments, ttsList, "audio");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pollyService.shutdown();
+    }
+
+    @Benchmark
+    public List<XhtmlBuilder.PageXhtml> buildXhtml() {
+        return new XhtmlBuilder().buildPageXhtmls(metadata.getTitle(), segments, imageFormats);
+    }
+
+    @Benchmark
+    public List<SmilBuilder.PageSmil> buildSmil() {
+        return new SmilBuilder().buildPageSmils(segments, ttsList, "audio");
+    }
+
+    @Benchmark
+    public void buildOpfAndNav(Blackhole bh) {
+        OpfBuilder opfBuilder = new OpfBuilder();
+        bh.consume(opfBuilder.buildOpf(metadata.getBookId(), metadata.getTitle(), metadata.getAuthor(),
+                metadata.getLanguage(), pages, imageFormats));
+        bh.consume(opfBuilder.buildContainerXml());
+        bh.consume(new NavBuilder().buildNav(metadata.getTitle(), imageFormats));
+    }
+
+    /**
+     * 책 전체를 byte[] 로 패키징 (S3 업로드 경로)
+     */
+    @Benchmark
+    public byte[] zipEpubToBytes() {
+        return new EpubPackager().buildEpubWithPages(pageXhtmls, pageSmils, opf, containerXml, nav, ttsList, pageImages);
+    }
+
+    /**
+     * 페이지 단위로 ZIP 스트림에 기록 (/tts/epub/v2 스트리밍 경로, 출력은 버림)
+     */
+    @Benchmark
+    public void zipEpubStreaming(Blackhole bh) throws IOException {
+        EpubStreamWriter writer = new EpubStreamWriter(new ZipEntrySink(new BlackholeOutputStream(bh)));
+        writer.writeFrontMatter(containerXml, nav, opf);
+        for (int i = 0; i < pages; i++) {
+            writer.writePage(i + 1, pageXhtmls.get(i), pageSmils.get(i), ttsList.get(i), pageImages.get(i));
+        }
+        writer.finish();
+    }
+
+    private static final class BlackholeOutputStream extends OutputStream {
+        private final Blackhole bh;
+
+        BlackholeOutputStream(Blackhole bh) {
+            this.bh = bh;
+        }
+
+        @Override
+        public void write(int b) {
+            bh.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bh.consume(b);
+            bh.consume(len);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package rubric_labs.tts_project;
+
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 페이지 래스터화 / 이미지 인코딩
+ * - renderAll 은 책 전체 (app.render 기본값과 같은 병렬도), 나머지는 한 페이지 기준
+ * - encodeAuto 는 app.render.image 기본값 (축소 + 내용별 PNG/JPEG), encodePng 는 예전 150-DPI RGB PNG
+ * - layout=fullPageJpeg 는 페이지마다 JPEG 한 장인 PDF (renderAll 이 원본 스트림 복사 경로를 탐)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PageRenderBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int pages;
+
+    @Param({"illustrated", "fullPageJpeg"})
+    public String layout;
+
+    private PageRasterizer rasterizer;
+    private PdfDocumentSession session;
+    private BufferedImage renderedPage;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        rasterizer = new PageRasterizer(150, 4, 4, 8, true, BenchmarkStubs.IMAGE_ENCODER, BenchmarkStubs.METRICS);
+        Path pdf = "fullPageJpeg".equals(layout) ? SyntheticPdfs.fullPageJpeg(pages) : SyntheticPdfs.get(pages);
+        session = PdfDocumentSession.open(pdf, "benchmark.pdf");
+        renderedPage = new PDFRenderer(session.getDocument()).renderImageWithDPI(0, 150);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        session.close();
+        rasterizer.shutdown();
+    }
+
+    @Benchmark
+    public List<PageImage> renderAll() {
+        return rasterizer.renderAll(session);
+    }
+
+    @Benchmark
+    public BufferedImage rasterizePage() throws IOException {
+        return new PDFRenderer(session.getDocument()).renderImageWithDPI(pages / 2, 150);
+    }
+
+    @Benchmark
+    public PageImage encodeAuto() throws IOException {
+        return BenchmarkStubs.IMAGE_ENCODER.encode(renderedPage);
+    }
+
+    @Benchmark
+    public byte[] encodePng() throws IOException {
+        return PageImageEncoder.writePng(renderedPage);
+    }
+}
@@ -0,0 +1,76 @@
+package rubric_labs.tts_project;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 텍스트 추출 / 문장 분리 / SSML 생성
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PdfTextBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int pages;
+
+    private PdfReader pdfReader;
+    private PdfDocumentSession session;
+    private BookMetadata metadata;
+    private List<String> pageTexts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PdfMetadataExtractor metadataExtractor = new PdfMetadataExtractor(BenchmarkStubs.METRICS, BenchmarkStubs.TEXT_EXTRACTOR);
+        pdfReader = new PdfReader(metadataExtractor, new PageRasterizer(150, 1, 1, 1, true, BenchmarkStubs.IMAGE_ENCODER, BenchmarkStubs.METRICS), BenchmarkStubs.TEXT_EXTRACTOR);
+        session = PdfDocumentSession.open(SyntheticPdfs.get(pages), "benchmark.pdf");
+        metadata = metadataExtractor.extractMetadata(session);
+        pageTexts = SyntheticPdfs.pageTexts(pages);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        session.close();
+    }
+
+    @Benchmark
+    public List<String> extractTextByPage() {
+        // 세션에 저장된 페이지 텍스트를 지워 매번 한 번의 전체 추출부터 측정
+        session.setPageTexts(null);
+        return pdfReader.extractTextByPage(session);
+    }
+
+    /**
+     * 필터링 없이 단일 패스 추출만
+     */
+    @Benchmark
+    public List<String> extractAllPages() {
+        return BenchmarkStubs.TEXT_EXTRACTOR.extract(session.getDocument());
+    }
+
+    @Benchmark
+    public void splitSentences(Blackhole bh) {
+        for (String text : pageTexts) {
+            bh.consume(pdfReader.splitSentences(pdfReader.sanitize(text, metadata.getLanguage()), metadata.getLanguage()));
+        }
+    }
+
+    @Benchmark
+    public void buildSsml(Blackhole bh) {
+        for (String text : pageTexts) {
+            bh.consume(pdfReader.convertToSSML(text, metadata));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package rubric_labs.tts_project;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SpeechMarks JSON lines 파싱 - 기존 indexOf/substring 파서와 Jackson 스트리밍 파서 비교
+ * - 할당량 비교는 -PjmhProfilers=gc 로 gc 프로파일러를 붙여 확인 (gc.alloc.rate.norm)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SpeechMarkParseBenchmark {
+
+    // 단어 수 (word mark 수와 같고, 문장 8단어마다 sentence mark 하나가 더해짐)
+    @Param({"1000", "10000", "100000"})
+    public int words;
+
+    private byte[] json;
+    private byte[] trackBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder ssml = new StringBuilder("<speak><p>");
+        for (int i = 0; i < words; i++) {
+            ssml.append("word").append(i).append(i % 8 == 7 ? ". " : " ");
+        }
+        ssml.append("</p></speak>");
+        json = BenchmarkStubs.fakeSpeechMarks(ssml.toString());
+        try {
+            trackBytes = SpeechMarkParser.parse(json).toBytes();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public List<SpeechMark> legacyParser() {
+        return LegacySpeechMarkParser.parseSpeechMarks(new String(json, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public SpeechMarkTrack streamingParser() throws IOException {
+        return SpeechMarkParser.parse(json);
+    }
+
+    /**
+     * 캐시 hit 경로 (binary SpeechMarkTrack 복원)
+     */
+    @Benchmark
+    public SpeechMarkTrack trackFromBytes() {
+        return SpeechMarkTrack.fromBytes(trackBytes);
+    }
+
+    /**
+     * 교체 전 PollyService 의 파서 (비교 기준으로만 보관)
+     */
+    static final class LegacySpeechMarkParser {
+
+        static List<SpeechMark> parseSpeechMarks(String json) {
+            // JSON 라인별 파싱 (각 라인이 하나의 SpeechMark JSON)
+            return json.lines()
+                    .filter(line -> !line.trim().isEmpty())
+                    .map(LegacySpeechMarkParser::parseJsonLine)
+                    .filter(mark -> mark != null)
+                    .toList();
+        }
+
+        private static SpeechMark parseJsonLine(String jsonLine) {
+            try {
+                // 간단한 JSON 파싱 (Jackson 대신 수동 파싱)
+                if (jsonLine.contains("\"type\":\"word\"") || jsonLine.contains("\"type\":\"sentence\"")
+                        || jsonLine.contains("\"type\":\"ssml\"")) {
+                    String type = extractJsonValue(jsonLine, "type");
+                    int start = Integer.parseInt(extractJsonValue(jsonLine, "start"));
+                    int end = Integer.parseInt(extractJsonValue(jsonLine, "end"));
+                    long time = Long.parseLong(extractJsonValue(jsonLine, "time"));
+                    String value = extractJsonValue(jsonLine, "value");
+
+                    return new SpeechMark(type, start, end, time, value);
+                }
+            } catch (Exception e) {
+                // 기존 동작과 같이 무시
+            }
+            return null;
+        }
+
+        private static String extractJsonValue(String json, String key) {
+            String pattern = "\"" + key + "\":\"";
+            int start = json.indexOf(pattern);
+            if (start == -1) {
+                // 숫자 값인 경우
+                pattern = "\"" + key + "\":";
+                start = json.indexOf(pattern);
+                if (start == -1) return "";
+                start += pattern.length();
+                int end = json.indexOf(",", start);
+                if (end == -1) end = json.indexOf("}", start);
+                return json.substring(start, end).trim();
+            } else {
+                start += pattern.length();
+                int end = json.indexOf("\"", start);
+                return json.substring(start, end);
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package rubric_labs.tts_project;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 벤치마크용 합성 PDF (그림책 형태: 페이지마다 삽화 한 장 + 짧은 문단)
+ * - 같은 JVM 안에서는 페이지 수별로 한 번만 생성해 재사용
+ * - 페이지 텍스트는 pageText() 로 PDF 없이도 같은 내용을 얻을 수 있음
+ * - fullPageJpeg(): 페이지 전체가 JPEG 한 장인 스캔본 형태 (텍스트 없음, EmbeddedPageImage 경로)
+ */
+final class SyntheticPdfs {
+
+    private static final String[] SENTENCES = {
+            "The little fox looked up at the moon and wondered where it went during the day.",
+            "Mother fox smiled and said that the moon was always there, even when we cannot see it.",
+            "They walked together past the old oak tree, listening to the owls talk softly.",
+            "A cold wind blew across the meadow, and the grass bent like waves on the sea.",
+            "When they reached the river, the fox counted the stars reflected in the water.",
+            "Was the moon hiding behind the hills? The fox did not know, but he was not afraid.",
+    };
+
+    private static final Map<Integer, Path> CACHE = new ConcurrentHashMap<>();
+    private static final Map<Integer, Path> JPEG_CACHE = new ConcurrentHashMap<>();
+
+    private SyntheticPdfs() {
+    }
+
+    static Path get(int pageCount) {
+        return CACHE.computeIfAbsent(pageCount, SyntheticPdfs::create);
+    }
+
+    static Path fullPageJpeg(int pageCount) {
+        return JPEG_CACHE.computeIfAbsent(pageCount, SyntheticPdfs::createFullPageJpeg);
+    }
+
+    static String pageText(int pageNumber) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 4; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(SENTENCES[(pageNumber + i) % SENTENCES.length]);
+        }
+        return sb.toString();
+    }
+
+    static List<String> pageTexts(int pageCount) {
+        List<String> texts = new ArrayList<>(pageCount);
+        for (int page = 1; page <= pageCount; page++) {
+            texts.add(pageText(page));
+        }
+        return texts;
+    }
+
+    private static Path create(int pageCount) {
+        try {
+            Path file = Files.createTempFile("jmh-book-" + pageCount + "-", ".pdf");
+            file.toFile().deleteOnExit();
+
+            try (PDDocument document = new PDDocument()) {
+                PDDocumentInformation info = document.getDocumentInformation();
+                info.setTitle("The Fox and the Moon (" + pageCount + " pages)");
+                info.setAuthor("Benchmark Author");
+
+                PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+                PDImageXObject illustration = LosslessFactory.createFromImage(document, illustration());
+
+                for (int page = 1; page <= pageCount; page++) {
+                    PDPage pdPage = new PDPage(PDRectangle.A4);
+                    document.addPage(pdPage);
+
+                    try (PDPageContentStream content = new PDPageContentStream(document, pdPage)) {
+                        content.drawImage(illustration, 72, 420, 451, 338);
+
+                        content.beginText();
+                        content.setFont(font, 12);
+                        content.setLeading(16);
+                        content.newLineAtOffset(72, 380);
+                        for (String line : wrap(pageText(page), 80)) {
+                            content.showText(line);
+                            content.newLine();
+                        }
+                        content.endText();
+
+                        content.beginText();
+                        content.setFont(font, 10);
+                        content.newLineAtOffset(290, 40);
+                        content.showText(String.valueOf(page));
+                        content.endText();
+                    }
+                }
+
+                document.save(file.toFile());
+            }
+            return file;
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("벤치마크 PDF 생성 실패", e);
+        }
+    }
+
+    private static Path createFullPageJpeg(int pageCount) {
+        try {
+            Path file = Files.createTempFile("jmh-scan-" + pageCount + "-", ".pdf");
+            file.toFile().deleteOnExit();
+
+            try (PDDocument document = new PDDocument()) {
+                document.getDocumentInformation().setTitle("The Fox and the Moon (scan, " + pageCount + " pages)");
+
+                // 150 DPI A4 스캔 한 장을 모든 페이지가 공유 (원본 스트림 복사 비용만 측정)
+                BufferedImage scan = new BufferedImage(1240, 1754, BufferedImage.TYPE_INT_RGB);
+                Graphics2D g = scan.createGraphics();
+                try {
+                    g.drawImage(illustration(), 0, 0, 1240, 1754, null);
+                } finally {
+                    g.dispose();
+                }
+                PDImageXObject jpeg = JPEGFactory.createFromImage(document, scan, 0.85f);
+
+                for (int page = 1; page <= pageCount; page++) {
+                    PDPage pdPage = new PDPage(PDRectangle.A4);
+                    document.addPage(pdPage);
+                    try (PDPageContentStream content = new PDPageContentStream(document, pdPage)) {
+                        content.drawImage(jpeg, 0, 0, PDRectangle.A4.getWidth(), PDRectangle.A4.getHeight());
+                    }
+                }
+
+                document.save(file.toFile());
+            }
+            return file;
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("벤치마크 PDF 생성 실패", e);
+        }
+    }
+
+    private static BufferedImage illustration() {
+        BufferedImage image = new BufferedImage(600, 450, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setPaint(new java.awt.GradientPaint(0, 0, new Color(30, 40, 90), 0, 450, new Color(250, 200, 120)));
+            g.fillRect(0, 0, 600, 450);
+            g.setColor(new Color(250, 245, 220));
+            g.fillOval(420, 60, 90, 90);
+            g.setColor(new Color(40, 90, 40));
+            g.fillRect(0, 360, 600, 90);
+            g.setColor(new Color(200, 90, 30));
+            g.fillOval(230, 300, 120, 70);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    private static List<String> wrap(String text, int width) {
+        List<String> lines = new ArrayList<>();
+        StringBuilder line = new StringBuilder();
+        for (String word : text.split(" ")) {
+            if (line.length() + word.length() + 1 > width) {
+                lines.add(line.toString());
+                line.setLength(0);
+            }
+            if (!line.isEmpty()) {
+                line.append(' ');
+            }
+            line.append(word);
+        }
+        if (!line.isEmpty()) {
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+}
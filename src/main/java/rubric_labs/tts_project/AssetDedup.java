@@ -0,0 +1,184 @@
+package rubric_labs.tts_project;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 책 한 권 안에서 내용이 같은 페이지 이미지 / 오디오를 한 번만 저장 (SHA-256)
+ * - 같은 내용이 처음 나온 페이지가 파일을 소유하고, 뒤 페이지는 그 파일을 가리킴
+ *   (빈 페이지, 반복되는 면지 삽화, "The End." 음성 등)
+ * - 페이지 순서대로 add 해야 하며 스트리밍 패키징에서는 페이지를 쓰면서 하나씩 추가
+ * - EPUB(OPF/XHTML/SMIL), S3 업로드, manifest.json 이 모두 같은 파일명을 씀
+ */
+public final class AssetDedup {
+
+    private final Map<String, Integer> imageOwnersByHash = new HashMap<>();
+    private final Map<String, Integer> audioOwnersByHash = new HashMap<>();
+    private final List<Integer> imageOwners = new ArrayList<>();    // index = 페이지 번호 - 1
+    private final List<Integer> audioOwners = new ArrayList<>();
+    private final List<PageImage.Format> imageFormats = new ArrayList<>();
+
+    private long imageBytes;
+    private long storedImageBytes;
+    private long audioBytes;
+    private long storedAudioBytes;
+
+    /**
+     * 페이지 이미지 / 오디오가 모두 준비된 경우 (pageImages[i], ttsList[i] = i+1 페이지)
+     */
+    public static AssetDedup of(List<PageImage> pageImages, List<ParagraphTts> ttsList) {
+        AssetDedup assets = new AssetDedup();
+        int pageCount = Math.max(pageImages.size(), ttsList.size());
+        for (int i = 0; i < pageCount; i++) {
+            assets.addImage(i + 1, i < pageImages.size() ? pageImages.get(i) : null);
+            assets.addAudio(i + 1, i < ttsList.size() ? ttsList.get(i) : null);
+        }
+        return assets;
+    }
+
+    /**
+     * @return 이 페이지가 가리킬 이미지 파일의 소유 페이지 번호 (자기 자신이면 새 파일, 이미지가 없으면 0)
+     */
+    public int addImage(int pageNumber, PageImage image) {
+        ensureSize(imageOwners, pageNumber);
+        ensureSize(imageFormats, pageNumber);
+        if (image == null) {
+            return 0;
+        }
+        imageBytes += image.getData().length;
+        int owner = imageOwnersByHash.computeIfAbsent(PageFingerprint.sha256Hex(image.getData()), hash -> pageNumber);
+        if (owner == pageNumber) {
+            storedImageBytes += image.getData().length;
+        }
+        imageOwners.set(pageNumber - 1, owner);
+        imageFormats.set(pageNumber - 1, image.getFormat());
+        return owner;
+    }
+
+    /**
+     * @return 이 페이지가 가리킬 MP3 파일의 소유 페이지 번호 (자기 자신이면 새 파일, 오디오가 없으면 0)
+     */
+    public int addAudio(int pageNumber, ParagraphTts tts) {
+        ensureSize(audioOwners, pageNumber);
+        if (tts == null || tts.getMp3() == null) {
+            return 0;
+        }
+        audioBytes += tts.getMp3().length;
+        int owner = audioOwnersByHash.computeIfAbsent(PageFingerprint.sha256Hex(tts.getMp3()), hash -> pageNumber);
+        if (owner == pageNumber) {
+            storedAudioBytes += tts.getMp3().length;
+        }
+        audioOwners.set(pageNumber - 1, owner);
+        return owner;
+    }
+
+    public int imageOwner(int pageNumber) {
+        return owner(imageOwners, pageNumber);
+    }
+
+    public int audioOwner(int pageNumber) {
+        return owner(audioOwners, pageNumber);
+    }
+
+    public boolean ownsImage(int pageNumber) {
+        return imageOwner(pageNumber) == pageNumber;
+    }
+
+    public boolean ownsAudio(int pageNumber) {
+        return audioOwner(pageNumber) == pageNumber;
+    }
+
+    /**
+     * EPUB 이미지 파일명 (OEBPS/images/ 기준, 소유 페이지의 이름)
+     */
+    public String imageFileName(int pageNumber) {
+        int owner = imageOwner(pageNumber);
+        return owner == 0 ? null : imageFormats.get(owner - 1).epubFileName(owner);
+    }
+
+    /**
+     * EPUB 오디오 파일명 (OEBPS/audio/ 기준, 소유 페이지의 이름, 오디오가 없는 페이지는 자기 이름)
+     */
+    public String audioFileName(int pageNumber) {
+        int owner = audioOwner(pageNumber);
+        return "chap1_p" + (owner == 0 ? pageNumber : owner) + ".mp3";
+    }
+
+    public PageImage.Format imageFormat(int pageNumber) {
+        int owner = imageOwner(pageNumber);
+        return owner == 0 ? null : imageFormats.get(owner - 1);
+    }
+
+    /**
+     * 페이지별 이미지 파일명 (페이지 순서, 공유 파일은 여러 번 나옴)
+     */
+    public List<String> imageFileNames() {
+        List<String> names = new ArrayList<>(imageOwners.size());
+        for (int page = 1; page <= imageOwners.size(); page++) {
+            names.add(imageFileName(page));
+        }
+        return names;
+    }
+
+    /**
+     * 실제로 저장되는 이미지를 소유한 페이지 번호 (오름차순)
+     */
+    public List<Integer> imagePages() {
+        return ownerPages(imageOwners);
+    }
+
+    public List<Integer> audioPages() {
+        return ownerPages(audioOwners);
+    }
+
+    /**
+     * 원본 바이트 / 저장 바이트 (중복이 없으면 1.0)
+     */
+    public double imageDedupRatio() {
+        return ratio(imageBytes, storedImageBytes);
+    }
+
+    public double audioDedupRatio() {
+        return ratio(audioBytes, storedAudioBytes);
+    }
+
+    public long savedBytes() {
+        return (imageBytes - storedImageBytes) + (audioBytes - storedAudioBytes);
+    }
+
+    public void record(PipelineMetrics metrics) {
+        metrics.recordDedupRatio("image", imageDedupRatio());
+        metrics.recordDedupRatio("audio", audioDedupRatio());
+        metrics.recordBytes("asset_dedup", savedBytes());
+    }
+
+    private static int owner(List<Integer> owners, int pageNumber) {
+        if (pageNumber < 1 || pageNumber > owners.size()) {
+            return 0;
+        }
+        Integer owner = owners.get(pageNumber - 1);
+        return owner != null ? owner : 0;
+    }
+
+    private static List<Integer> ownerPages(List<Integer> owners) {
+        List<Integer> pages = new ArrayList<>();
+        for (int page = 1; page <= owners.size(); page++) {
+            if (owner(owners, page) == page) {
+                pages.add(page);
+            }
+        }
+        return pages;
+    }
+
+    private static <T> void ensureSize(List<T> list, int pageNumber) {
+        while (list.size() < pageNumber) {
+            list.add(null);
+        }
+    }
+
+    private static double ratio(long total, long stored) {
+        return stored == 0 ? 1.0 : (double) total / stored;
+    }
+}
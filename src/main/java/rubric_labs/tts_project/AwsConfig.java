@@ -3,9 +3,15 @@ package rubric_labs.tts_project;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.core.retry.backoff.FullJitterBackoffStrategy;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.polly.PollyClient;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.multipart.MultipartConfiguration;
+
+import java.time.Duration;
 
 @Configuration
 public class AwsConfig {
@@ -13,11 +19,26 @@ public class AwsConfig {
     @Value("${spring.cloud.aws.region.static}")
     private String awsRegion;
 
+    @Value("${app.s3.upload.multipart-threshold-bytes:16777216}")
+    private long multipartThresholdBytes;
+
+    @Value("${app.s3.upload.part-size-bytes:8388608}")
+    private long partSizeBytes;
+
+    @Value("${app.s3.upload.max-retries:3}")
+    private int maxRetries;
+
+    /**
+     * Polly 요청은 PollyRateLimiter 를 거침
+     * - 재시도는 limiter 가 throttle 을 보고 속도를 조절하며 수행하므로 SDK 자체 재시도는 끔
+     */
     @Bean
-    public PollyClient pollyClient() {
-        return PollyClient.builder()
+    public PollyClient pollyClient(PollyRateLimiter pollyRateLimiter) {
+        PollyClient client = PollyClient.builder()
                 .region(Region.of(awsRegion))
+                .overrideConfiguration(o -> o.retryPolicy(RetryPolicy.none()))
                 .build();
+        return new RateLimitedPollyClient(client, pollyRateLimiter);
     }
 
     @Bean
@@ -26,5 +47,28 @@ public class AwsConfig {
                 .region(Region.of(awsRegion))
                 .build();
     }
-}
 
+    /**
+     * 책 리소스 병렬 업로드용
+     * - threshold 이상 객체(book.epub 등)는 자동으로 multipart 업로드
+     * - 실패 시 full-jitter 지수 백오프로 재시도
+     */
+    @Bean
+    public S3AsyncClient s3AsyncClient() {
+        return S3AsyncClient.builder()
+                .region(Region.of(awsRegion))
+                .multipartEnabled(true)
+                .multipartConfiguration(MultipartConfiguration.builder()
+                        .thresholdInBytes(multipartThresholdBytes)
+                        .minimumPartSizeInBytes(partSizeBytes)
+                        .build())
+                .overrideConfiguration(o -> o.retryPolicy(RetryPolicy.builder()
+                        .numRetries(maxRetries)
+                        .backoffStrategy(FullJitterBackoffStrategy.builder()
+                                .baseDelay(Duration.ofMillis(200))
+                                .maxBackoffTime(Duration.ofSeconds(10))
+                                .build())
+                        .build()))
+                .build();
+    }
+}
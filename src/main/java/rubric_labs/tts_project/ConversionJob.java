@@ -0,0 +1,63 @@
+package rubric_labs.tts_project;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * 비동기 PDF → EPUB/S3 변환 작업 상태 (재시작 후에도 유지)
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "conversion_job")
+public class ConversionJob {
+
+    @Id
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @Enumerated(EnumType.STRING)
+    private ConversionStage stage;
+
+    private int completedPages;
+    private int totalPages;
+
+    private String originalFilename;
+    private String inputPath;       // 작업 입력 PDF (완료/실패 시 삭제)
+
+    private String bookId;          // 결과 책 ID (개정판 작업은 등록 시 대상 책 ID)
+    private String manifestUrl;
+
+    @Column(length = 2000)
+    private String errorMessage;
+
+    private Instant createdAt;
+    private Instant updatedAt;
+
+    @PrePersist
+    void onCreate() {
+        createdAt = Instant.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    void onUpdate() {
+        updatedAt = Instant.now();
+    }
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+}
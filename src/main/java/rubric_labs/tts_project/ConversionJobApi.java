@@ -0,0 +1,69 @@
+package rubric_labs.tts_project;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 비동기 EPUB 변환 작업 API
+ * - POST   /tts/jobs                 : PDF 등록 → jobId 즉시 반환 (202), bookId 를 주면 기존 책 개정판 반영
+ * - GET    /tts/jobs/{jobId}         : 상태/단계/페이지 진행률 폴링
+ * - GET    /tts/jobs/{jobId}/events  : 진행 상황 SSE 구독
+ * - GET    /tts/jobs/{jobId}/result  : 완료된 작업의 ManifestResponse
+ */
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping("/tts/jobs")
+@RestController
+public class ConversionJobApi {
+
+    private final ConversionJobService jobService;
+
+    @PostMapping(value = "", consumes = {MediaType.MULTIPART_FORM_DATA_VALUE})
+    public ResponseEntity<ConversionJobResponse> submit(@RequestPart("file") MultipartFile file,
+                                                        @RequestParam(value = "bookId", required = false) String bookId) {
+        try {
+            ConversionJob job = jobService.submit(file, bookId);
+            return ResponseEntity.accepted().body(ConversionJobResponse.from(job));
+
+        } catch (RejectedExecutionException e) {
+            log.warn("변환 작업 대기열이 가득 참: {}", file.getOriginalFilename());
+            return ResponseEntity.status(503).body(null);
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ConversionJobResponse> getStatus(@PathVariable String jobId) {
+        return jobService.findJob(jobId)
+                .map(job -> ResponseEntity.ok(ConversionJobResponse.from(job)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(@PathVariable String jobId) {
+        return jobService.findJob(jobId)
+                .map(job -> ResponseEntity.ok(jobService.subscribe(job)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{jobId}/result")
+    public ResponseEntity<TteApi.ManifestResponse> getResult(@PathVariable String jobId) {
+        return jobService.findJob(jobId)
+                .map(job -> job.getStatus() == ConversionJob.Status.COMPLETED
+                        ? ResponseEntity.ok(new TteApi.ManifestResponse(job.getManifestUrl(), job.getBookId()))
+                        : ResponseEntity.status(409).<TteApi.ManifestResponse>body(null))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,11 @@
+package rubric_labs.tts_project;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ConversionJobRepository extends JpaRepository<ConversionJob, String> {
+
+    List<ConversionJob> findByStatusIn(Collection<ConversionJob.Status> statuses);
+}
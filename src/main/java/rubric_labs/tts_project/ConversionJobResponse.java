@@ -0,0 +1,33 @@
+package rubric_labs.tts_project;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 변환 작업 상태 응답 (폴링 / SSE 공용)
+ */
+@Data
+@AllArgsConstructor
+public class ConversionJobResponse {
+    private String jobId;
+    private ConversionJob.Status status;
+    private ConversionStage stage;
+    private int completedPages;
+    private int totalPages;
+    private String bookId;
+    private String manifestUrl;
+    private String errorMessage;
+
+    public static ConversionJobResponse from(ConversionJob job) {
+        return new ConversionJobResponse(
+                job.getId(),
+                job.getStatus(),
+                job.getStage(),
+                job.getCompletedPages(),
+                job.getTotalPages(),
+                job.getBookId(),
+                job.getManifestUrl(),
+                job.getErrorMessage()
+        );
+    }
+}
@@ -0,0 +1,309 @@
+package rubric_labs.tts_project;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 비동기 변환 작업 관리
+ * - 업로드 PDF 를 작업 디렉터리에 저장하고 즉시 jobId 반환
+ * - 고정 크기 워커 풀 + 제한된 대기열 (가득 차면 RejectedExecutionException)
+ * - 작업 상태는 DB 에 저장, 재시작 시 미완료 작업을 다시 대기열에 넣음
+ */
+@Slf4j
+@Service
+public class ConversionJobService {
+
+    private static final long SSE_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final ConversionJobRepository jobRepository;
+    private final EpubConversionService conversionService;
+    private final PipelineMetrics metrics;
+    private final Path workDir;
+    private final ThreadPoolExecutor workers;
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    private volatile boolean shuttingDown;
+
+    public ConversionJobService(
+            ConversionJobRepository jobRepository,
+            EpubConversionService conversionService,
+            PipelineMetrics metrics,
+            @Value("${app.jobs.work-dir:${java.io.tmpdir}/tts-jobs}") String workDir,
+            @Value("${app.jobs.workers:2}") int workerCount,
+            @Value("${app.jobs.queue-capacity:20}") int queueCapacity
+    ) {
+        this.jobRepository = jobRepository;
+        this.conversionService = conversionService;
+        this.metrics = metrics;
+        this.workDir = Path.of(workDir);
+        this.workers = new ThreadPoolExecutor(
+                workerCount, workerCount,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("conversion-job-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * 작업 등록 (입력 파일 저장 후 대기열 투입)
+     * - bookId 가 있으면 새 책 대신 기존 책의 개정판으로 반영
+     */
+    public ConversionJob submit(MultipartFile file, String bookId) {
+        String jobId = UUID.randomUUID().toString();
+        Path input = workDir.resolve(jobId + ".pdf");
+
+        try {
+            Files.createDirectories(workDir);
+            file.transferTo(input);
+        } catch (IOException e) {
+            throw new RuntimeException("작업 입력 파일 저장 실패: " + e.getMessage(), e);
+        }
+
+        ConversionJob job = new ConversionJob();
+        job.setId(jobId);
+        job.setStatus(ConversionJob.Status.QUEUED);
+        job.setStage(ConversionStage.QUEUED);
+        job.setOriginalFilename(file.getOriginalFilename());
+        job.setInputPath(input.toString());
+        job.setBookId(bookId);
+        job = jobRepository.save(job);
+
+        try {
+            workers.execute(() -> run(jobId));
+        } catch (RejectedExecutionException e) {
+            jobRepository.deleteById(jobId);
+            deleteQuietly(input);
+            throw e;
+        }
+
+        log.info("변환 작업 등록: {} ({})", jobId, file.getOriginalFilename());
+        return job;
+    }
+
+    public Optional<ConversionJob> findJob(String jobId) {
+        return jobRepository.findById(jobId);
+    }
+
+    /**
+     * 작업 진행 상황 구독 (SSE), 현재 상태를 즉시 한 번 전송
+     */
+    public SseEmitter subscribe(ConversionJob job) {
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
+        String jobId = job.getId();
+
+        if (isFinished(job)) {
+            sendQuietly(emitter, job);
+            emitter.complete();
+            return emitter;
+        }
+
+        List<SseEmitter> emitters = subscribers.computeIfAbsent(jobId, id -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+
+        sendQuietly(emitter, job);
+        return emitter;
+    }
+
+    /**
+     * 재시작 전 미완료 작업 복구
+     * - 입력 파일이 남아 있으면 다시 대기열에 넣고, 없으면 실패 처리
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        List<ConversionJob> pending = jobRepository.findByStatusIn(
+                List.of(ConversionJob.Status.QUEUED, ConversionJob.Status.RUNNING));
+
+        for (ConversionJob job : pending) {
+            if (job.getInputPath() == null || !Files.exists(Path.of(job.getInputPath()))) {
+                markFailed(job, "서버 재시작으로 입력 파일을 찾을 수 없음");
+                continue;
+            }
+
+            job.setStatus(ConversionJob.Status.QUEUED);
+            job.setStage(ConversionStage.QUEUED);
+            job.setCompletedPages(0);
+            jobRepository.save(job);
+
+            try {
+                workers.execute(() -> run(job.getId()));
+                log.info("미완료 변환 작업 재등록: {}", job.getId());
+            } catch (RejectedExecutionException e) {
+                markFailed(job, "재시작 후 대기열이 가득 차 작업을 재등록하지 못함");
+            }
+        }
+    }
+
+    private void run(String jobId) {
+        ConversionJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            log.warn("변환 작업을 찾을 수 없음: {}", jobId);
+            return;
+        }
+
+        Path input = Path.of(job.getInputPath());
+        JobProgress progress = new JobProgress(job);
+
+        try (PipelineMetrics.Scope scope = metrics.openScope("/tts/jobs");
+             PdfDocumentSession session = openSession(input, job.getOriginalFilename())) {
+            progress.start(session.getPageCount());
+            TteApi.ManifestResponse result = job.getBookId() != null
+                    ? conversionService.updateOnS3(job.getBookId(), session, progress)
+                    : conversionService.convertToS3(session, progress);
+            progress.complete(result);
+            deleteQuietly(input);
+
+        } catch (Exception e) {
+            if (shuttingDown) {
+                // 종료 중 중단된 작업은 다음 기동 시 재개 (입력 파일 유지)
+                log.warn("서버 종료로 변환 작업 중단: {}", jobId);
+                return;
+            }
+            log.error("변환 작업 실패: {}", jobId, e);
+            progress.fail(e);
+            deleteQuietly(input);
+        }
+    }
+
+    private PdfDocumentSession openSession(Path input, String originalFilename) throws IOException {
+        long size = Files.size(input);
+        try (PipelineMetrics.StageTimer timer = metrics.start("pdf_load")) {
+            PdfDocumentSession session = PdfDocumentSession.open(input, originalFilename);
+            timer.bytes(size).pages(session.getPageCount()).success();
+            return session;
+        }
+    }
+
+    private void markFailed(ConversionJob job, String message) {
+        job.setStatus(ConversionJob.Status.FAILED);
+        job.setErrorMessage(message);
+        jobRepository.save(job);
+        log.warn("변환 작업 실패 처리: {} - {}", job.getId(), message);
+    }
+
+    private void publish(ConversionJob job) {
+        List<SseEmitter> emitters = subscribers.get(job.getId());
+        if (emitters == null) {
+            return;
+        }
+
+        for (SseEmitter emitter : emitters) {
+            sendQuietly(emitter, job);
+            if (isFinished(job)) {
+                emitter.complete();
+            }
+        }
+        if (isFinished(job)) {
+            subscribers.remove(job.getId());
+        }
+    }
+
+    private void sendQuietly(SseEmitter emitter, ConversionJob job) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name("progress")
+                    .data(ConversionJobResponse.from(job)));
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private boolean isFinished(ConversionJob job) {
+        return job.getStatus() == ConversionJob.Status.COMPLETED
+                || job.getStatus() == ConversionJob.Status.FAILED;
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("작업 입력 파일 삭제 실패: {}", path);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+        workers.shutdownNow();
+    }
+
+    /**
+     * 파이프라인 진행 상황을 작업 엔티티에 반영
+     * - 페이지 완료 콜백은 합성 스레드에서 동시에 들어오므로 동기화
+     */
+    private class JobProgress implements ConversionProgressListener {
+
+        private final ConversionJob job;
+
+        JobProgress(ConversionJob job) {
+            this.job = job;
+        }
+
+        synchronized void start(int totalPages) {
+            job.setStatus(ConversionJob.Status.RUNNING);
+            job.setTotalPages(totalPages);
+            job.setCompletedPages(0);
+            save();
+        }
+
+        @Override
+        public synchronized void onStage(ConversionStage stage) {
+            job.setStage(stage);
+            save();
+        }
+
+        @Override
+        public synchronized void onPageSynthesized(int completedPages, int totalPages) {
+            // 늦게 도착한 콜백이 진행률을 되돌리지 않도록
+            if (completedPages <= job.getCompletedPages()) {
+                return;
+            }
+            job.setCompletedPages(completedPages);
+            job.setTotalPages(totalPages);
+            save();
+        }
+
+        synchronized void complete(TteApi.ManifestResponse result) {
+            job.setStatus(ConversionJob.Status.COMPLETED);
+            job.setStage(ConversionStage.DONE);
+            job.setBookId(result.getBookId());
+            job.setManifestUrl(result.getManifestUrl());
+            save();
+        }
+
+        synchronized void fail(Exception e) {
+            job.setStatus(ConversionJob.Status.FAILED);
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            job.setErrorMessage(message.length() > 2000 ? message.substring(0, 2000) : message);
+            save();
+        }
+
+        private void save() {
+            jobRepository.save(job);
+            publish(job);
+        }
+    }
+}
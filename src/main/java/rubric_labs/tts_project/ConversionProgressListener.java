@@ -0,0 +1,16 @@
+package rubric_labs.tts_project;
+
+/**
+ * 변환 진행 상황 콜백 (단계 전환 / 페이지 합성 완료)
+ * - onPageSynthesized 는 합성 스레드에서 동시에 호출될 수 있음
+ */
+public interface ConversionProgressListener {
+
+    ConversionProgressListener NONE = new ConversionProgressListener() {};
+
+    default void onStage(ConversionStage stage) {
+    }
+
+    default void onPageSynthesized(int completedPages, int totalPages) {
+    }
+}
@@ -0,0 +1,14 @@
+package rubric_labs.tts_project;
+
+/**
+ * PDF → EPUB/S3 변환 파이프라인 단계
+ */
+public enum ConversionStage {
+    QUEUED,         // 작업 대기열
+    PARSING,        // PDF 로드 + 메타데이터/텍스트 추출
+    RENDERING,      // 페이지 이미지 렌더링
+    SYNTHESIZING,   // Polly 음성 합성
+    PACKAGING,      // XHTML/SMIL/OPF 생성 + EPUB 패키징
+    UPLOADING,      // S3 업로드
+    DONE
+}
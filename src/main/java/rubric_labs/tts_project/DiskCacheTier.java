@@ -0,0 +1,154 @@
+package rubric_labs.tts_project;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 로컬 디스크 캐시 계층
+ * - {dir}/{key 앞 2자리}/{key} 형태로 저장 (디렉터리당 파일 수 분산)
+ * - 임시 파일에 쓴 뒤 원자적 이동 → 동시에 같은 key 를 써도 깨진 파일이 보이지 않음
+ * - 파일 크기 총량(maxBytes) 기준 LRU 제거, 사용 순서는 파일 mtime 으로 남겨 재시작 후에도 이어감
+ */
+@Slf4j
+public class DiskCacheTier implements SynthesisCacheTier {
+
+    private final Path directory;
+    private final long maxBytes;
+
+    // key → 파일 크기 (access-order, 앞쪽이 가장 오래 사용되지 않은 항목)
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long currentBytes;
+
+    public DiskCacheTier(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        loadExisting();
+    }
+
+    @Override
+    public String name() {
+        return "disk";
+    }
+
+    @Override
+    public byte[] get(String key) {
+        Path path = pathOf(key);
+        try {
+            byte[] data = Files.readAllBytes(path);
+            synchronized (this) {
+                entries.get(key);
+            }
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+            return data;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("디스크 캐시 읽기 실패: key={}, 에러={}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String key, byte[] data) {
+        // 한 항목이 전체 용량보다 크면 캐시하지 않음
+        if (data.length > maxBytes) {
+            return;
+        }
+
+        Path target = pathOf(key);
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), key, ".tmp");
+            Files.write(temp, data);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("디스크 캐시 쓰기 실패: key={}, 에러={}", key, e.getMessage());
+            return;
+        }
+
+        synchronized (this) {
+            Long previous = entries.put(key, (long) data.length);
+            if (previous != null) {
+                currentBytes -= previous;
+            }
+            currentBytes += data.length;
+            evict();
+        }
+    }
+
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    /**
+     * 오래 사용되지 않은 파일부터 삭제 (lock 안에서 지워야 같은 key 를 다시 쓴 파일을 지우지 않음)
+     */
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            try {
+                Files.deleteIfExists(pathOf(eldest.getKey()));
+            } catch (IOException e) {
+                log.warn("디스크 캐시 삭제 실패: key={}, 에러={}", eldest.getKey(), e.getMessage());
+            }
+            currentBytes -= eldest.getValue();
+            it.remove();
+        }
+    }
+
+    /**
+     * 이전 실행이 남긴 파일을 mtime 순으로 등록하고 용량을 넘으면 바로 정리
+     */
+    private synchronized void loadExisting() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        record CachedFile(Path path, long size, long lastModified) {
+        }
+        List<CachedFile> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.walk(directory, 2)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                if (!attributes.isRegularFile()) {
+                    continue;
+                }
+                if (path.getFileName().toString().endsWith(".tmp")) {
+                    // 쓰기 도중 종료된 임시 파일
+                    Files.deleteIfExists(path);
+                    continue;
+                }
+                files.add(new CachedFile(path, attributes.size(), attributes.lastModifiedTime().toMillis()));
+            }
+        } catch (IOException e) {
+            log.warn("디스크 캐시 목록 읽기 실패: dir={}, 에러={}", directory, e.getMessage());
+        }
+
+        files.sort(Comparator.comparingLong(CachedFile::lastModified));
+        for (CachedFile file : files) {
+            entries.put(file.path().getFileName().toString(), file.size());
+            currentBytes += file.size();
+        }
+        evict();
+        log.info("디스크 캐시: {} 개 파일, {} bytes (최대 {} bytes)", entries.size(), currentBytes, maxBytes);
+    }
+
+    private Path pathOf(String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key);
+    }
+}
@@ -0,0 +1,162 @@
+package rubric_labs.tts_project;
+
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSNumber;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdfparser.PDFStreamParser;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.graphics.PDXObject;
+import org.apache.pdfbox.pdmodel.graphics.color.PDColorSpace;
+import org.apache.pdfbox.pdmodel.graphics.color.PDDeviceGray;
+import org.apache.pdfbox.pdmodel.graphics.color.PDDeviceRGB;
+import org.apache.pdfbox.pdmodel.graphics.color.PDICCBased;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * 페이지 전체를 덮는 JPEG 한 장으로만 된 페이지 감지 (그림책 PDF 에 흔함)
+ * - 내용 스트림이 q / Q / cm / Do 만으로 이루어지고 Do 가 한 번, 그 대상이 DCTDecode 이미지 XObject 일 때
+ * - 이미지가 회전/반전 없이 CropBox 를 덮어야 함 (오차 1%)
+ * - 화면에 보이는 결과가 JPEG 원본과 같아야 하므로 마스크 / Decode 배열 / CMYK 등은 제외
+ * → 압축된 스트림을 그대로 꺼내 쓰면 렌더링과 재인코딩을 모두 건너뜀
+ */
+record EmbeddedPageImage(byte[] jpeg, int width, int height) {
+
+    private static final double COVER_TOLERANCE = 0.01;
+
+    /**
+     * @return 조건에 맞지 않으면 null (일반 렌더링 경로 사용)
+     */
+    static EmbeddedPageImage find(PDPage page) throws IOException {
+        PDResources resources = page.getResources();
+        if (resources == null || page.getRotation() % 360 != 0 || !page.getAnnotations().isEmpty()) {
+            return null;
+        }
+
+        List<Object> tokens = new PDFStreamParser(page).parse();
+        Deque<double[]> stack = new ArrayDeque<>();
+        double[] ctm = {1, 0, 0, 1, 0, 0};
+        PDImageXObject image = null;
+        double[] imageCtm = null;
+
+        int operandStart = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            if (!(tokens.get(i) instanceof Operator operator)) {
+                continue;
+            }
+            List<Object> operands = tokens.subList(operandStart, i);
+            operandStart = i + 1;
+
+            switch (operator.getName()) {
+                case "q" -> stack.push(ctm.clone());
+                case "Q" -> {
+                    if (stack.isEmpty()) {
+                        return null;
+                    }
+                    ctm = stack.pop();
+                }
+                case "cm" -> {
+                    double[] m = numbers(operands);
+                    if (m == null) {
+                        return null;
+                    }
+                    ctm = concatenate(m, ctm);
+                }
+                case "Do" -> {
+                    if (image != null || operands.size() != 1 || !(operands.get(0) instanceof COSName name)) {
+                        return null;
+                    }
+                    PDXObject xObject = resources.getXObject(name);
+                    if (!(xObject instanceof PDImageXObject candidate)) {
+                        return null;
+                    }
+                    image = candidate;
+                    imageCtm = ctm;
+                }
+                // 글자, 도형, 인라인 이미지, 그래픽 상태 변경(gs) 등이 하나라도 있으면 합성 페이지
+                default -> {
+                    return null;
+                }
+            }
+        }
+
+        if (image == null || !isPlainJpeg(image) || !coversPage(imageCtm, page.getCropBox())) {
+            return null;
+        }
+        try (InputStream in = image.getCOSObject().createRawInputStream()) {
+            return new EmbeddedPageImage(in.readAllBytes(), image.getWidth(), image.getHeight());
+        }
+    }
+
+    private static boolean isPlainJpeg(PDImageXObject image) throws IOException {
+        COSStream stream = image.getCOSObject();
+        COSBase filters = stream.getFilters();
+        boolean dctOnly = COSName.DCT_DECODE.equals(filters)
+                || (filters instanceof COSArray array && array.size() == 1 && COSName.DCT_DECODE.equals(array.getObject(0)));
+        if (!dctOnly || image.isStencil()
+                || stream.containsKey(COSName.SMASK)
+                || stream.containsKey(COSName.MASK)
+                || stream.containsKey(COSName.DECODE)) {
+            return false;
+        }
+
+        // 브라우저/리더가 그대로 보여 줄 수 있는 색 공간만 (CMYK JPEG 은 Adobe 반전 문제로 제외)
+        PDColorSpace colorSpace = image.getColorSpace();
+        return colorSpace instanceof PDDeviceRGB
+                || colorSpace instanceof PDDeviceGray
+                || (colorSpace instanceof PDICCBased icc
+                && (icc.getNumberOfComponents() == 1 || icc.getNumberOfComponents() == 3));
+    }
+
+    /**
+     * 이미지 단위 정사각형이 CTM 으로 CropBox 전체에 놓이는지 (회전/기울임/반전 없음)
+     */
+    private static boolean coversPage(double[] ctm, PDRectangle box) {
+        double toleranceX = box.getWidth() * COVER_TOLERANCE;
+        double toleranceY = box.getHeight() * COVER_TOLERANCE;
+        return Math.abs(ctm[1]) < 1e-6 && Math.abs(ctm[2]) < 1e-6
+                && ctm[0] > 0 && ctm[3] > 0
+                && Math.abs(ctm[4] - box.getLowerLeftX()) <= toleranceX
+                && Math.abs(ctm[5] - box.getLowerLeftY()) <= toleranceY
+                && Math.abs(ctm[4] + ctm[0] - box.getUpperRightX()) <= toleranceX
+                && Math.abs(ctm[5] + ctm[3] - box.getUpperRightY()) <= toleranceY;
+    }
+
+    private static double[] numbers(List<Object> operands) {
+        if (operands.size() != 6) {
+            return null;
+        }
+        double[] values = new double[6];
+        for (int i = 0; i < 6; i++) {
+            if (!(operands.get(i) instanceof COSNumber number)) {
+                return null;
+            }
+            values[i] = number.floatValue();
+        }
+        return values;
+    }
+
+    /**
+     * cm: 새 CTM = m × ctm ([a b c d e f] 행렬, PDF 좌표 규약)
+     */
+    private static double[] concatenate(double[] m, double[] ctm) {
+        return new double[]{
+                m[0] * ctm[0] + m[1] * ctm[2],
+                m[0] * ctm[1] + m[1] * ctm[3],
+                m[2] * ctm[0] + m[3] * ctm[2],
+                m[2] * ctm[1] + m[3] * ctm[3],
+                m[4] * ctm[0] + m[5] * ctm[2] + ctm[4],
+                m[4] * ctm[1] + m[5] * ctm[3] + ctm[5]
+        };
+    }
+}
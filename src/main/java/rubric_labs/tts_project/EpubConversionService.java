@@ -0,0 +1,379 @@
+package rubric_labs.tts_project;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * PDF → 페이지별 EPUB → S3 변환 파이프라인
+ * - 동기 API(/tts/epub/v2/s3)와 비동기 작업(/tts/jobs)이 함께 사용
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EpubConversionService {
+
+    private final PdfReader pdfReader;
+    private final PdfMetadataExtractor metadataExtractor;
+    private final SynthesisExecutor synthesisExecutor;
+    private final S3UploadService s3UploadService;
+    private final PipelineMetrics metrics;
+
+    public TteApi.ManifestResponse convertToS3(PdfDocumentSession session, ConversionProgressListener listener) throws IOException {
+        // 1. 메타데이터 / 페이지별 텍스트 추출
+        listener.onStage(ConversionStage.PARSING);
+        BookMetadata metadata = metadataExtractor.extractMetadata(session);
+        String bookId = metadata.getBookId();
+        List<String> pageTexts = pdfReader.extractTextByPage(session);
+
+        // 2. 페이지별 이미지 추출
+        listener.onStage(ConversionStage.RENDERING);
+        List<PageImage> pageImages = pdfReader.extractPageImages(session);
+
+        // 3. 페이지별 음성 생성 (페이지 순서 유지, 병렬 합성)
+        listener.onStage(ConversionStage.SYNTHESIZING);
+        List<ParagraphSegment> segments = buildPageSegments(pageTexts, pageImages.size(), metadata);
+        List<ParagraphTts> ttsList = synthesisExecutor.synthesizeAll(segments, metadata.getVoice(), listener);
+
+        // 4. 패키징 + 업로드
+        String manifestUrl = packageAndUpload(metadata, segments, ttsList, pageImages,
+                AssetDedup.of(pageImages, ttsList), fingerprint(pageTexts, pageImages), null, false, listener);
+
+        listener.onStage(ConversionStage.DONE);
+        log.info("✅ EPUB V2 생성 완료: {}", manifestUrl);
+        return new TteApi.ManifestResponse(manifestUrl, bookId);
+    }
+
+    /**
+     * 이미 변환된 책(bookId)의 개정판 반영
+     * - 페이지별 텍스트/이미지 해시를 기존 manifest.json 과 비교해 바뀐 페이지만 골라냄
+     * - 바뀐 페이지만 합성하고, 바뀌지 않은 페이지는 이전 업로드의 MP3 / SpeechMarkTrack 을 S3 에서 읽어 재사용
+     *   (재시작 / 다른 인스턴스 / 합성 캐시 eviction 과 무관하게 Polly 호출 없음, 저장된 음성이 없는 페이지만 다시 합성)
+     * - S3 에는 바뀐 페이지의 XHTML/SMIL/MP3/이미지와 OPF/nav, book.epub, manifest.json 만 다시 업로드
+     *   (제목 / 저자 / 언어가 바뀌면 모든 페이지의 XHTML/SMIL 도 다시 업로드)
+     * - 바뀌지 않은 페이지는 중복 제거 소유 페이지(AssetDedup)가 이전 manifest 와 달라졌을 때만 다시 업로드
+     * - 페이지 수가 줄었으면 새 마지막 페이지 뒤의 이전 페이지 파일은 manifest.json 을 쓴 뒤 삭제
+     */
+    public TteApi.ManifestResponse updateOnS3(String bookId, PdfDocumentSession session,
+                                              ConversionProgressListener listener) throws IOException {
+        listener.onStage(ConversionStage.PARSING);
+        ManifestJson previous = s3UploadService.readManifest(bookId)
+                .orElseThrow(() -> new RuntimeException("기존 책을 찾을 수 없음: " + bookId));
+
+        BookMetadata metadata = metadataExtractor.extractMetadata(session);
+        metadata.setBookId(bookId);
+        List<String> pageTexts = pdfReader.extractTextByPage(session);
+
+        listener.onStage(ConversionStage.RENDERING);
+        List<PageImage> pageImages = pdfReader.extractPageImages(session);
+        List<PageFingerprint> fingerprints = fingerprint(pageTexts, pageImages);
+
+        // 변경 페이지 판별 (음성이 바뀌면 전체 페이지 재합성)
+        Map<Integer, ManifestPage> previousPages = new HashMap<>();
+        if (previous.getPages() != null) {
+            previous.getPages().forEach(page -> previousPages.put(page.getPageNumber(), page));
+        }
+        boolean sameVoice = Objects.equals(previous.getVoice(), metadata.getVoice());
+        Set<Integer> changedPages = new TreeSet<>();
+        for (int i = 0; i < fingerprints.size(); i++) {
+            if (!sameVoice || !fingerprints.get(i).matches(previousPages.get(i + 1))) {
+                changedPages.add(i + 1);
+            }
+        }
+
+        // XHTML 에 들어가는 메타데이터가 바뀌면 바뀌지 않은 페이지의 XHTML/SMIL 도 다시 올림
+        boolean metadataChanged = !Objects.equals(previous.getTitle(), metadata.getTitle())
+                || !Objects.equals(previous.getAuthor(), metadata.getAuthor())
+                || !Objects.equals(previous.getLanguage(), metadata.getLanguage());
+
+        if (changedPages.isEmpty() && previousPages.size() == fingerprints.size() && !metadataChanged) {
+            listener.onStage(ConversionStage.DONE);
+            log.info("개정판 변경 없음: {}", bookId);
+            return new TteApi.ManifestResponse(s3UploadService.getManifestUrl(bookId), bookId);
+        }
+        log.info("개정판 변경 페이지: {}/{} {} (메타데이터 변경: {})",
+                changedPages.size(), fingerprints.size(), changedPages, metadataChanged);
+
+        listener.onStage(ConversionStage.SYNTHESIZING);
+        List<ParagraphSegment> segments = buildPageSegments(pageTexts, pageImages.size(), metadata);
+        List<ParagraphTts> ttsList = synthesizeChanged(
+                bookId, segments, metadata.getVoice(), previousPages, changedPages, listener);
+
+        // 바뀌지 않은 페이지라도 소유 페이지가 달라졌으면 다시 올림 (자기 파일을 갖게 됐거나 다른 파일을 가리키게 됨)
+        AssetDedup assets = AssetDedup.of(pageImages, ttsList);
+        Set<Integer> uploadPages = new TreeSet<>(changedPages);
+        for (ParagraphSegment segment : segments) {
+            int pageNumber = segment.getIndex();
+            if (!changedPages.contains(pageNumber) && ownerChanged(previousPages.get(pageNumber), assets, pageNumber)) {
+                uploadPages.add(pageNumber);
+            }
+        }
+        if (uploadPages.size() > changedPages.size()) {
+            log.info("개정판 소유 페이지 변경으로 다시 올리는 페이지: {}", uploadPages.size() - changedPages.size());
+        }
+
+        String manifestUrl = packageAndUpload(
+                metadata, segments, ttsList, pageImages, assets, fingerprints, uploadPages, metadataChanged, listener);
+
+        List<ManifestPage> removedPages = previousPages.values().stream()
+                .filter(page -> page.getPageNumber() > segments.size())
+                .toList();
+        if (!removedPages.isEmpty()) {
+            s3UploadService.deleteRemovedPages(bookId, removedPages);
+        }
+
+        listener.onStage(ConversionStage.DONE);
+        log.info("✅ EPUB V2 개정판 반영 완료: {}", manifestUrl);
+        return new TteApi.ManifestResponse(manifestUrl, bookId);
+    }
+
+    /**
+     * 이전 manifest 의 공유 기록과 이번 AssetDedup 의 소유 페이지 비교 (공유하지 않는 페이지는 자기 자신이 소유)
+     */
+    private static boolean ownerChanged(ManifestPage previousPage, AssetDedup assets, int pageNumber) {
+        return ownerOrSelf(assets.imageOwner(pageNumber), pageNumber) != sharedOrSelf(previousPage.getImageSharedWithPage(), pageNumber)
+                || ownerOrSelf(assets.audioOwner(pageNumber), pageNumber) != sharedOrSelf(previousPage.getAudioSharedWithPage(), pageNumber);
+    }
+
+    private static int ownerOrSelf(int owner, int pageNumber) {
+        return owner == 0 ? pageNumber : owner;
+    }
+
+    private static int sharedOrSelf(Integer sharedWithPage, int pageNumber) {
+        return sharedWithPage != null ? sharedWithPage : pageNumber;
+    }
+
+    /**
+     * 바뀐 페이지만 합성하고 나머지는 S3 에 저장된 음성으로 채움 (페이지 순서)
+     * - 다른 페이지의 오디오를 공유하던 페이지는 그 소유 페이지의 MP3 를 읽음
+     * - 저장된 MP3 / SpeechMarkTrack 이 없는 페이지(이 형식 이전 업로드)는 changedPages 에 추가해 합성 후 다시 업로드
+     */
+    private List<ParagraphTts> synthesizeChanged(String bookId, List<ParagraphSegment> segments, String voiceId,
+                                                 Map<Integer, ManifestPage> previousPages, Set<Integer> changedPages,
+                                                 ConversionProgressListener listener) throws IOException {
+        Map<Integer, Integer> audioFilePages = new LinkedHashMap<>();
+        for (ParagraphSegment segment : segments) {
+            int pageNumber = segment.getIndex();
+            if (!changedPages.contains(pageNumber)) {
+                audioFilePages.put(pageNumber,
+                        sharedOrSelf(previousPages.get(pageNumber).getAudioSharedWithPage(), pageNumber));
+            }
+        }
+        Map<Integer, ParagraphTts> ttsByPage = new HashMap<>(s3UploadService.readPageAudio(bookId, audioFilePages));
+        metrics.countPages("audio_reuse", ttsByPage.size());
+        for (int page : audioFilePages.keySet()) {
+            if (!ttsByPage.containsKey(page)) {
+                changedPages.add(page);
+            }
+        }
+
+        List<ParagraphSegment> toSynthesize = segments.stream()
+                .filter(segment -> changedPages.contains(segment.getIndex()))
+                .toList();
+        if (!toSynthesize.isEmpty()) {
+            log.info("개정판 합성: {}/{} 페이지 (나머지는 기존 음성 재사용)", toSynthesize.size(), segments.size());
+            for (ParagraphTts tts : synthesisExecutor.synthesizeAll(toSynthesize, voiceId, listener)) {
+                ttsByPage.put(tts.getParagraphIndex(), tts);
+            }
+        }
+
+        return segments.stream()
+                .map(segment -> ttsByPage.get(segment.getIndex()))
+                .toList();
+    }
+
+    /**
+     * EPUB 패키징 + S3 업로드를 한 패스로
+     * - 모든 엔트리는 book.epub ZIP 에 기록
+     * - 같은 바이트를 books/{bookId}/epub/ 로 바로 업로드 (다시 언집하지 않음), uploadPages 가 있으면 그 페이지만
+     * - 내용이 같은 이미지/오디오는 처음 나온 페이지의 파일 하나만 기록하고 나머지 페이지는 그 파일을 참조 (AssetDedup)
+     *
+     * @param uploadPages     다시 업로드할 페이지 번호 (1-based), null 이면 전체
+     * @param metadataChanged true 면 나머지 페이지도 XHTML/SMIL 은 다시 업로드 (제목 등이 XHTML 에 들어감)
+     */
+    private String packageAndUpload(BookMetadata metadata,
+                                    List<ParagraphSegment> segments,
+                                    List<ParagraphTts> ttsList,
+                                    List<PageImage> pageImages,
+                                    AssetDedup assets,
+                                    List<PageFingerprint> fingerprints,
+                                    Set<Integer> uploadPages,
+                                    boolean metadataChanged,
+                                    ConversionProgressListener listener) throws IOException {
+        listener.onStage(ConversionStage.PACKAGING);
+
+        // OPF / Nav 생성 (페이지별 spine)
+        OpfBuilder opfBuilder = new OpfBuilder();
+        assets.record(metrics);
+        String opf = buildOpf(opfBuilder, metadata, segments.size(), assets);
+        String containerXml = opfBuilder.buildContainerXml();
+        String nav = metrics.time("opf_build", () -> new NavBuilder().buildNav(metadata.getTitle(), assets));
+
+        S3UploadService.BookUpload upload = s3UploadService.beginBookUpload(metadata.getBookId());
+        ByteArrayOutputStream epubOut = new ByteArrayOutputStream();
+        EpubStreamWriter epub = new EpubStreamWriter(new ZipEntrySink(epubOut));
+        EpubStreamWriter exploded = new EpubStreamWriter(upload.explodedEpubSink());
+        epub.writeFrontMatter(containerXml, nav, opf);
+        exploded.writeFrontMatter(containerXml, nav, opf);
+
+        XhtmlBuilder xhtmlBuilder = new XhtmlBuilder();
+        SmilBuilder smilBuilder = new SmilBuilder();
+        for (int i = 0; i < segments.size(); i++) {
+            ParagraphSegment segment = segments.get(i);
+            int pageNumber = segment.getIndex();
+            ParagraphTts tts = ttsList.get(i);
+            XhtmlBuilder.PageXhtml pageXhtml = metrics.time("xhtml_build",
+                    () -> xhtmlBuilder.buildPageXhtml(metadata.getTitle(), pageNumber, segment, assets.imageFileName(pageNumber)));
+            SmilBuilder.PageSmil pageSmil = metrics.time("smil_build",
+                    () -> smilBuilder.buildPageSmil(segment, tts, "audio", assets.audioFileName(pageNumber)));
+
+            // 공유 파일은 소유 페이지에서만 기록
+            PageImage pageImage = assets.ownsImage(pageNumber) ? pageImages.get(i) : null;
+            ParagraphTts pageAudio = assets.ownsAudio(pageNumber) ? tts : null;
+
+            writePageTimed(epub, pageNumber, pageXhtml, pageSmil, pageAudio, pageImage);
+            if (uploadPages == null || uploadPages.contains(pageNumber)) {
+                exploded.writePage(pageNumber, pageXhtml, pageSmil, pageAudio, pageImage);
+            } else if (metadataChanged) {
+                // 내용은 같지만 XHTML 의 제목이 바뀐 페이지는 XHTML/SMIL 만
+                exploded.writePage(pageNumber, pageXhtml, pageSmil, null, null);
+            }
+        }
+        epub.finish();
+        metrics.recordBytes("zip_package", epubOut.size());
+
+        // S3 업로드 마무리 (bookId 기반 경로, manifest 는 마지막)
+        listener.onStage(ConversionStage.UPLOADING);
+        return upload.complete(
+                metadata,
+                epubOut.toByteArray(),
+                ttsList,
+                pageImages,
+                segments,
+                fingerprints,
+                assets,
+                uploadPages
+        );
+    }
+
+    private String buildOpf(OpfBuilder opfBuilder, BookMetadata metadata, int pageCount, AssetDedup assets) {
+        return metrics.time("opf_build", () -> opfBuilder.buildOpf(
+                metadata.getBookId(),
+                metadata.getTitle(),
+                metadata.getAuthor(),
+                metadata.getLanguage(),
+                pageCount,
+                assets
+        ));
+    }
+
+    private void writePageTimed(EpubStreamWriter writer, int pageNumber,
+                                XhtmlBuilder.PageXhtml pageXhtml, SmilBuilder.PageSmil pageSmil,
+                                ParagraphTts tts, PageImage pageImage) throws IOException {
+        try (PipelineMetrics.StageTimer timer = metrics.start("zip_package")) {
+            writer.writePage(pageNumber, pageXhtml, pageSmil, tts, pageImage);
+            timer.pages(1).success();
+        }
+    }
+
+    private List<PageFingerprint> fingerprint(List<String> pageTexts, List<PageImage> pageImages) {
+        List<PageFingerprint> fingerprints = new ArrayList<>(pageImages.size());
+        for (int i = 0; i < pageImages.size(); i++) {
+            fingerprints.add(PageFingerprint.of(i < pageTexts.size() ? pageTexts.get(i) : "", pageImages.get(i).getData()));
+        }
+        return fingerprints;
+    }
+
+    /**
+     * 페이지별 EPUB 을 OutputStream 으로 스트리밍
+     * - 페이지 이미지는 쓰기 직전에 한 장씩 렌더링
+     * - 페이지 이미지 포맷(PNG/JPEG)과 중복 여부는 페이지를 만들어 봐야 알 수 있으므로 OPF / nav 는 모든 페이지를 쓴 뒤 기록
+     *   (ZIP 안에서 순서가 정해진 엔트리는 mimetype 뿐)
+     * - 음성은 SynthesisStream 으로 앞선 일부 페이지만 미리 합성
+     * → 책 전체를 메모리에 올리지 않으므로 페이지 수와 무관하게 메모리 사용량 일정
+     */
+    public void writeEpub(PdfDocumentSession session, OutputStream out) throws IOException {
+        BookMetadata metadata = metadataExtractor.extractMetadata(session);
+        List<String> pageTexts = pdfReader.extractTextByPage(session);
+        int pageCount = session.getPageCount();
+        List<ParagraphSegment> segments = buildPageSegments(pageTexts, pageCount, metadata);
+
+        XhtmlBuilder xhtmlBuilder = new XhtmlBuilder();
+        SmilBuilder smilBuilder = new SmilBuilder();
+        AssetDedup assets = new AssetDedup();
+
+        EpubStreamWriter writer = new EpubStreamWriter(new ZipEntrySink(out));
+
+        try (SynthesisExecutor.SynthesisStream ttsStream = synthesisExecutor.stream(segments, metadata.getVoice())) {
+            for (ParagraphSegment segment : segments) {
+                int pageNumber = segment.getIndex();
+
+                // 렌더링은 현재 스레드, 합성은 백그라운드에서 겹쳐 진행
+                PageImage pageImage = pdfReader.renderPageImage(session, pageNumber - 1);
+                ParagraphTts tts = ttsStream.next();
+                assets.addImage(pageNumber, pageImage);
+                assets.addAudio(pageNumber, tts);
+
+                // 스트리밍 경로의 zip_package 에는 응답 스트림 쓰기(클라이언트 수신 대기)가 포함됨
+                writePageTimed(
+                        writer,
+                        pageNumber,
+                        metrics.time("xhtml_build",
+                                () -> xhtmlBuilder.buildPageXhtml(metadata.getTitle(), pageNumber, segment,
+                                        assets.imageFileName(pageNumber))),
+                        metrics.time("smil_build",
+                                () -> smilBuilder.buildPageSmil(segment, tts, "audio", assets.audioFileName(pageNumber))),
+                        assets.ownsAudio(pageNumber) ? tts : null,
+                        assets.ownsImage(pageNumber) ? pageImage : null
+                );
+                log.debug("페이지 {}/{} 스트리밍 완료", pageNumber, pageCount);
+            }
+        }
+
+        assets.record(metrics);
+        OpfBuilder opfBuilder = new OpfBuilder();
+        String opf = buildOpf(opfBuilder, metadata, segments.size(), assets);
+        String nav = metrics.time("opf_build", () -> new NavBuilder().buildNav(metadata.getTitle(), assets));
+        writer.writeFrontMatter(opfBuilder.buildContainerXml(), nav, opf);
+
+        writer.finish();
+        log.info("✅ EPUB V2 스트리밍 완료: {} ({} 페이지)", metadata.getTitle(), pageCount);
+    }
+
+    /**
+     * 페이지별 텍스트 → ParagraphSegment (SSML + SMIL 용 문장 리스트)
+     */
+    public List<ParagraphSegment> buildPageSegments(List<String> pageTexts, int pageCount, BookMetadata metadata) {
+        List<ParagraphSegment> segments = new ArrayList<>();
+
+        for (int i = 0; i < pageCount; i++) {
+            int pageNumber = i + 1;
+
+            // 텍스트를 SSML로 변환
+            String pageText = i < pageTexts.size() ? pageTexts.get(i) : "";
+            String ssml = pdfReader.convertToSSML(pageText, metadata);
+
+            // 문장 분리 (SMIL 생성용)
+            List<String> sentences = pdfReader.splitSentences(
+                    pdfReader.sanitize(pageText, metadata.getLanguage()),
+                    metadata.getLanguage()
+            );
+
+            segments.add(new ParagraphSegment(pageNumber, sentences, ssml));
+        }
+
+        return segments;
+    }
+}
@@ -0,0 +1,16 @@
+package rubric_labs.tts_project;
+
+import java.io.IOException;
+
+/**
+ * EPUB 엔트리(경로 + 내용)를 받는 대상
+ * - ZIP 파일, S3 언집 레이아웃 등 여러 곳에 같은 엔트리를 한 번에 보낼 수 있도록 분리
+ * - path 는 EPUB 내부 경로 (예: mimetype, OEBPS/text/page1.xhtml)
+ */
+public interface EpubEntrySink {
+
+    void put(String path, byte[] data) throws IOException;
+
+    default void finish() throws IOException {
+    }
+}
@@ -4,14 +4,12 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.zip.CRC32;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 public class EpubPackager {
 
     /**
      * ✅ 페이지별 XHTML/SMIL 파일로 EPUB 생성
+     * 전체 책을 byte[] 로 만들므로 큰 책은 EpubStreamWriter + ZipEntrySink 로 직접 스트리밍 권장
      */
     public byte[] buildEpubWithPages(
             List<XhtmlBuilder.PageXhtml> pageXhtmls,
@@ -20,50 +18,54 @@ public class EpubPackager {
             String containerXml,
             String nav,
             List<ParagraphTts> ttsList,
-            List<byte[]> pageImages
+            List<PageImage> pageImages
     ) {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
-             ZipOutputStream zos = new ZipOutputStream(baos, StandardCharsets.UTF_8)) {
+        return buildEpubWithPages(pageXhtmls, pageSmils, opf, containerXml, nav, ttsList, pageImages, null);
+    }
 
+    /**
+     * @param assets 중복 제거 결과 - 소유 페이지의 이미지/오디오만 기록 (OPF / XHTML / SMIL 도 같은 assets 로 생성해야 함),
+     *               null 이면 페이지마다 기록
+     */
+    public byte[] buildEpubWithPages(
+            List<XhtmlBuilder.PageXhtml> pageXhtmls,
+            List<SmilBuilder.PageSmil> pageSmils,
+            String opf,
+            String containerXml,
+            String nav,
+            List<ParagraphTts> ttsList,
+            List<PageImage> pageImages,
+            AssetDedup assets
+    ) {
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
             // 1) mimetype (반드시 첫 엔트리, STORED)
-            addStoredEntry(zos, "mimetype", "application/epub+zip".getBytes(StandardCharsets.US_ASCII));
+            EpubStreamWriter writer = new EpubStreamWriter(new ZipEntrySink(baos));
 
             // 2) META-INF/container.xml
-            put(zos, "META-INF/container.xml", containerXml.getBytes(StandardCharsets.UTF_8));
+            writer.put("META-INF/container.xml", containerXml.getBytes(StandardCharsets.UTF_8));
 
             // 3) ✅ 페이지별 XHTML 파일들
             for (XhtmlBuilder.PageXhtml pageXhtml : pageXhtmls) {
                 String path = "OEBPS/text/" + pageXhtml.getFileName();
-                put(zos, path, pageXhtml.getContent().getBytes(StandardCharsets.UTF_8));
+                writer.put(path, pageXhtml.getContent().getBytes(StandardCharsets.UTF_8));
             }
 
             // 3.5) OEBPS/nav.xhtml
-            put(zos, "OEBPS/nav.xhtml", nav.getBytes(StandardCharsets.UTF_8));
+            writer.put("OEBPS/nav.xhtml", nav.getBytes(StandardCharsets.UTF_8));
 
             // 4) ✅ 페이지별 SMIL 파일들
             for (SmilBuilder.PageSmil pageSmil : pageSmils) {
                 String path = "OEBPS/smil/" + pageSmil.getFileName();
-                put(zos, path, pageSmil.getContent().getBytes(StandardCharsets.UTF_8));
-            }
-
-            // 5) OEBPS/audio/*.mp3
-            for (ParagraphTts t : ttsList) {
-                String name = "OEBPS/audio/chap1_p" + t.getParagraphIndex() + ".mp3";
-                put(zos, name, t.getMp3());
+                writer.put(path, pageSmil.getContent().getBytes(StandardCharsets.UTF_8));
             }
 
-            // 5.5) OEBPS/images/page-<index>.png
-            if (pageImages != null) {
-                for (int i = 0; i < pageImages.size(); i++) {
-                    String imgPath = String.format("OEBPS/images/page-%d.png", i + 1);
-                    put(zos, imgPath, pageImages.get(i));
-                }
-            }
+            // 5) OEBPS/audio/*.mp3, 5.5) OEBPS/images/page-<index>.<png|jpg>
+            writeMedia(writer, ttsList, pageImages, assets);
 
             // 6) OEBPS/content.opf
-            put(zos, "OEBPS/content.opf", opf.getBytes(StandardCharsets.UTF_8));
+            writer.put("OEBPS/content.opf", opf.getBytes(StandardCharsets.UTF_8));
 
-            zos.finish();
+            writer.finish();
             return baos.toByteArray();
         } catch (IOException e) {
             throw new RuntimeException(e);
@@ -77,66 +79,67 @@ public class EpubPackager {
     @Deprecated
     public byte[] buildEpub(String xhtml, String smil, String opf, String containerXml,
                             String nav,
-                            List<ParagraphTts> ttsList, List<byte[]> pageImages) {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
-             ZipOutputStream zos = new ZipOutputStream(baos, StandardCharsets.UTF_8)) {
+                            List<ParagraphTts> ttsList, List<PageImage> pageImages) {
+        return buildEpub(xhtml, smil, opf, containerXml, nav, ttsList, pageImages, null);
+    }
 
+    /**
+     * 한 챕터 EPUB (/tts/epub)
+     * @param assets 중복 제거 결과 (null 이면 페이지마다 기록)
+     */
+    public byte[] buildEpub(String xhtml, String smil, String opf, String containerXml,
+                            String nav,
+                            List<ParagraphTts> ttsList, List<PageImage> pageImages,
+                            AssetDedup assets) {
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
             // 1) mimetype (반드시 첫 엔트리, STORED)
-            addStoredEntry(zos, "mimetype", "application/epub+zip".getBytes(StandardCharsets.US_ASCII));
+            EpubStreamWriter writer = new EpubStreamWriter(new ZipEntrySink(baos));
 
             // 2) META-INF/container.xml
-            put(zos, "META-INF/container.xml", containerXml.getBytes(StandardCharsets.UTF_8));
+            writer.put("META-INF/container.xml", containerXml.getBytes(StandardCharsets.UTF_8));
 
             // 3) OEBPS/text/chap1.xhtml
-            put(zos, "OEBPS/text/chap1.xhtml", xhtml.getBytes(StandardCharsets.UTF_8));
+            writer.put("OEBPS/text/chap1.xhtml", xhtml.getBytes(StandardCharsets.UTF_8));
 
             // 3.5) OEBPS/nav.xhtml
-            put(zos, "OEBPS/nav.xhtml", nav.getBytes(StandardCharsets.UTF_8));
+            writer.put("OEBPS/nav.xhtml", nav.getBytes(StandardCharsets.UTF_8));
 
             // 4) OEBPS/smil/chap1.smil
-            put(zos, "OEBPS/smil/chap1.smil", smil.getBytes(StandardCharsets.UTF_8));
+            writer.put("OEBPS/smil/chap1.smil", smil.getBytes(StandardCharsets.UTF_8));
 
-            // 5) OEBPS/audio/*.mp3
-            for (ParagraphTts t : ttsList) {
-                String name = "OEBPS/audio/chap1_p" + t.getParagraphIndex() + ".mp3";
-                put(zos, name, t.getMp3());
-            }
-
-            // 5.5) OEBPS/images/page-<index>.png
-            if (pageImages != null) {
-                for (int i = 0; i < pageImages.size(); i++) {
-                    String imgPath = String.format("OEBPS/images/page-%d.png", i + 1);
-                    put(zos, imgPath, pageImages.get(i));
-                }
-            }
+            // 5) OEBPS/audio/*.mp3, 5.5) OEBPS/images/page-<index>.<png|jpg>
+            writeMedia(writer, ttsList, pageImages, assets);
 
             // 6) OEBPS/content.opf
-            put(zos, "OEBPS/content.opf", opf.getBytes(StandardCharsets.UTF_8));
+            writer.put("OEBPS/content.opf", opf.getBytes(StandardCharsets.UTF_8));
 
-            zos.finish();
+            writer.finish();
             return baos.toByteArray();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private void put(ZipOutputStream zos, String path, byte[] data) throws IOException {
-        ZipEntry entry = new ZipEntry(path);
-        zos.putNextEntry(entry);
-        zos.write(data);
-        zos.closeEntry();
-    }
+    /**
+     * 페이지 오디오 / 이미지 기록 (ttsList[i], pageImages[i] = i+1 페이지)
+     * - assets 가 있으면 내용이 같은 파일은 처음 나온 페이지에서 한 번만 기록
+     */
+    private void writeMedia(EpubStreamWriter writer, List<ParagraphTts> ttsList, List<PageImage> pageImages,
+                            AssetDedup assets) throws IOException {
+        for (int i = 0; i < ttsList.size(); i++) {
+            if (assets == null || assets.ownsAudio(i + 1)) {
+                ParagraphTts t = ttsList.get(i);
+                writer.put("OEBPS/audio/chap1_p" + t.getParagraphIndex() + ".mp3", t.getMp3());
+            }
+        }
 
-    private void addStoredEntry(ZipOutputStream zos, String path, byte[] data) throws IOException {
-        ZipEntry entry = new ZipEntry(path);
-        entry.setMethod(ZipEntry.STORED);
-        entry.setSize(data.length);
-        entry.setCompressedSize(data.length);
-        CRC32 crc = new CRC32();
-        crc.update(data);
-        entry.setCrc(crc.getValue());
-        zos.putNextEntry(entry);
-        zos.write(data);
-        zos.closeEntry();
+        if (pageImages != null) {
+            for (int i = 0; i < pageImages.size(); i++) {
+                if (assets == null || assets.ownsImage(i + 1)) {
+                    PageImage image = pageImages.get(i);
+                    writer.put("OEBPS/images/" + image.getFormat().epubFileName(i + 1), image.getData());
+                }
+            }
+        }
     }
-}
\ No newline at end of file
+}
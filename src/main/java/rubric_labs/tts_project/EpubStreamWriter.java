@@ -0,0 +1,61 @@
+package rubric_labs.tts_project;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * EPUB 레이아웃(경로 규칙)에 맞춰 엔트리를 sink 로 기록
+ * - 생성 시 mimetype 을 첫 엔트리로 기록
+ * - 페이지 단위로 XHTML/SMIL/MP3/이미지를 쓰고 나면 호출자는 해당 데이터를 버릴 수 있음
+ */
+public class EpubStreamWriter {
+
+    private final EpubEntrySink sink;
+
+    public EpubStreamWriter(EpubEntrySink sink) throws IOException {
+        this.sink = sink;
+
+        // mimetype (반드시 첫 엔트리)
+        put("mimetype", "application/epub+zip".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * container.xml / nav.xhtml / content.opf
+     */
+    public void writeFrontMatter(String containerXml, String nav, String opf) throws IOException {
+        put("META-INF/container.xml", containerXml.getBytes(StandardCharsets.UTF_8));
+        put("OEBPS/nav.xhtml", nav.getBytes(StandardCharsets.UTF_8));
+        put("OEBPS/content.opf", opf.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 한 페이지의 XHTML / SMIL / MP3 / 이미지
+     * - null 인 항목은 건너뜀 (다른 페이지의 파일을 공유하는 경우 등)
+     */
+    public void writePage(int pageNumber,
+                          XhtmlBuilder.PageXhtml pageXhtml,
+                          SmilBuilder.PageSmil pageSmil,
+                          ParagraphTts tts,
+                          PageImage pageImage) throws IOException {
+        if (pageXhtml != null) {
+            put("OEBPS/text/" + pageXhtml.getFileName(), pageXhtml.getContent().getBytes(StandardCharsets.UTF_8));
+        }
+        if (pageSmil != null) {
+            put("OEBPS/smil/" + pageSmil.getFileName(), pageSmil.getContent().getBytes(StandardCharsets.UTF_8));
+        }
+        if (tts != null) {
+            put("OEBPS/audio/chap1_p" + tts.getParagraphIndex() + ".mp3", tts.getMp3());
+        }
+        if (pageImage != null) {
+            put("OEBPS/images/" + pageImage.getFormat().epubFileName(pageNumber), pageImage.getData());
+        }
+    }
+
+    public void put(String path, byte[] data) throws IOException {
+        sink.put(path, data);
+    }
+
+    public void finish() throws IOException {
+        sink.finish();
+    }
+}
@@ -16,6 +16,11 @@ public class ManifestJson {
     private String author;
     private String language;
     private String epubUrl;
+    private String voice;
+
+    // 책 전체 MP3 (페이지 MP3 를 이어 붙인 한 파일), 페이지 위치는 ManifestPage.bookAudioOffsetMs
+    private String bookAudioUrl;
+    private long bookAudioDurationMs;
 
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", timezone = "UTC")
     private Date createdAt;
@@ -31,6 +36,37 @@ public class ManifestJson {
 class ManifestPage {
     private int pageNumber;
     private String imageUrl;
+
+    // imageUrl 을 포함한 모든 해상도 (작은 것부터: placeholder, thumbnail, full)
+    private List<ManifestImageRendition> images;
     private String audioUrl;
     private String text;
-}
\ No newline at end of file
+
+    // 단어 타이밍 트랙 (WordTimings, JSON lines) - 위치는 text 기준 글자 단위
+    private String wordTimingUrl;
+
+    // 책 전체 MP3 안에서 이 페이지가 시작하는 위치 (seek table)
+    private Long bookAudioOffsetMs;
+    private Long bookAudioByteOffset;
+
+    // 개정판 업로드 시 변경 페이지 판별용 (PageFingerprint)
+    private String textHash;
+    private String imageHash;
+
+    // 내용이 같아 다른 페이지의 파일을 쓰는 경우 그 페이지 번호 (AssetDedup, 없으면 null)
+    private Integer imageSharedWithPage;
+    private Integer audioSharedWithPage;
+}
+
+/**
+ * 페이지 이미지 한 해상도 (클라이언트가 크기를 보고 먼저 받을 것을 고름)
+ */
+@Data
+class ManifestImageRendition {
+    private String name;
+    private String url;
+    private String mediaType;
+    private int width;
+    private int height;
+    private long bytes;
+}
@@ -0,0 +1,60 @@
+package rubric_labs.tts_project;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 메모리 LRU 캐시 계층
+ * - 엔트리 개수가 아니라 저장된 byte 총량(maxBytes) 기준으로 오래된 항목부터 제거
+ */
+public class MemoryCacheTier implements SynthesisCacheTier {
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long currentBytes;
+
+    public MemoryCacheTier(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public String name() {
+        return "memory";
+    }
+
+    @Override
+    public synchronized byte[] get(String key) {
+        return entries.get(key);
+    }
+
+    @Override
+    public synchronized void put(String key, byte[] data) {
+        // 한 항목이 전체 용량보다 크면 캐시하지 않음
+        if (data.length > maxBytes) {
+            return;
+        }
+
+        byte[] previous = entries.put(key, data);
+        if (previous != null) {
+            currentBytes -= previous.length;
+        }
+        currentBytes += data.length;
+
+        // access-order 이므로 iterator 앞쪽이 가장 오래 사용되지 않은 항목
+        Iterator<Map.Entry<String, byte[]>> it = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, byte[]> eldest = it.next();
+            currentBytes -= eldest.getValue().length;
+            it.remove();
+        }
+    }
+
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+}
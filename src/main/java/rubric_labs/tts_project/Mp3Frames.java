@@ -0,0 +1,236 @@
+package rubric_labs.tts_project;
+
+import lombok.Getter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MPEG audio Layer III 프레임 단위 분석 (Polly MP3 자르기/이어 붙이기용)
+ * - ID3v2 태그와 Xing/Info(VBR 헤더) 프레임은 오디오 프레임에서 제외
+ * - 프레임 경계에서만 자르므로 bit reservoir 때문에 자른 직후 수 ms 정도 잡음이 생길 수 있음
+ */
+public final class Mp3Frames {
+
+    private static final int[] BITRATES_V1_L3 = {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320};
+    private static final int[] BITRATES_V2_L3 = {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160};
+    private static final int[][] SAMPLE_RATES = {
+            {11025, 12000, 8000},   // MPEG 2.5
+            {0, 0, 0},              // reserved
+            {22050, 24000, 16000},  // MPEG 2
+            {44100, 48000, 32000},  // MPEG 1
+    };
+
+    private Mp3Frames() {
+    }
+
+    @Getter
+    public static final class Frame {
+        private final int offset;
+        private final int length;
+        private final long startMicros;
+        private final long durationMicros;
+
+        Frame(int offset, int length, long startMicros, long durationMicros) {
+            this.offset = offset;
+            this.length = length;
+            this.startMicros = startMicros;
+            this.durationMicros = durationMicros;
+        }
+
+        public long getEndMicros() {
+            return startMicros + durationMicros;
+        }
+    }
+
+    /**
+     * 오디오 프레임 목록 (시작 시각 누적)
+     */
+    public static List<Frame> parse(byte[] mp3) {
+        List<Frame> frames = new ArrayList<>();
+        int pos = skipId3v2(mp3);
+        long time = 0;
+
+        while (pos + 4 <= mp3.length) {
+            int b1 = mp3[pos] & 0xFF;
+            int b2 = mp3[pos + 1] & 0xFF;
+            int b3 = mp3[pos + 2] & 0xFF;
+
+            // frame sync 11 bit + Layer III
+            if (b1 != 0xFF || (b2 & 0xE0) != 0xE0 || ((b2 >> 1) & 0x3) != 0x1) {
+                pos++;
+                continue;
+            }
+
+            int version = (b2 >> 3) & 0x3;
+            int bitrateIndex = (b3 >> 4) & 0xF;
+            int sampleRateIndex = (b3 >> 2) & 0x3;
+            int padding = (b3 >> 1) & 0x1;
+
+            if (version == 1 || bitrateIndex == 0 || bitrateIndex == 15 || sampleRateIndex == 3) {
+                pos++;
+                continue;
+            }
+
+            boolean mpeg1 = version == 3;
+            int bitrate = (mpeg1 ? BITRATES_V1_L3 : BITRATES_V2_L3)[bitrateIndex] * 1000;
+            int sampleRate = SAMPLE_RATES[version][sampleRateIndex];
+            int samples = mpeg1 ? 1152 : 576;
+            int length = (mpeg1 ? 144 : 72) * bitrate / sampleRate + padding;
+
+            if (pos + length > mp3.length) {
+                break;
+            }
+
+            if (frames.isEmpty() && isXingFrame(mp3, pos, length)) {
+                pos += length;
+                continue;
+            }
+
+            long duration = samples * 1_000_000L / sampleRate;
+            frames.add(new Frame(pos, length, time, duration));
+            time += duration;
+            pos += length;
+        }
+
+        return frames;
+    }
+
+    public static long durationMillis(byte[] mp3) {
+        return durationMicros(mp3) / 1000;
+    }
+
+    public static long durationMicros(byte[] mp3) {
+        List<Frame> frames = parse(mp3);
+        return frames.isEmpty() ? 0 : frames.get(frames.size() - 1).getEndMicros();
+    }
+
+    /**
+     * [fromMillis, toMillis) 구간에서 시작하는 프레임만 잘라냄 (toMillis < 0 이면 끝까지)
+     * - 구간에 시작 프레임이 없으면 fromMillis 이후 첫 프레임 하나를 포함 (빈 MP3 방지)
+     */
+    public static Slice slice(byte[] mp3, List<Frame> frames, long fromMillis, long toMillis) {
+        long from = fromMillis * 1000;
+        long to = toMillis < 0 ? Long.MAX_VALUE : toMillis * 1000;
+
+        int first = -1;
+        int last = -1;
+        for (int i = 0; i < frames.size(); i++) {
+            long start = frames.get(i).getStartMicros();
+            if (start >= from && start < to) {
+                if (first < 0) {
+                    first = i;
+                }
+                last = i;
+            } else if (start >= to) {
+                break;
+            }
+        }
+
+        if (first < 0) {
+            for (int i = 0; i < frames.size(); i++) {
+                if (frames.get(i).getStartMicros() >= from || i == frames.size() - 1) {
+                    first = i;
+                    last = i;
+                    break;
+                }
+            }
+        }
+        if (first < 0) {
+            return new Slice(new byte[0], fromMillis);
+        }
+
+        Frame head = frames.get(first);
+        Frame tail = frames.get(last);
+        byte[] data = new byte[tail.getOffset() + tail.getLength() - head.getOffset()];
+        System.arraycopy(mp3, head.getOffset(), data, 0, data.length);
+        return new Slice(data, head.getStartMicros() / 1000);
+    }
+
+    /**
+     * 여러 MP3 의 오디오 프레임만 순서대로 이어 붙임 (ID3/Xing 헤더 제거)
+     */
+    public static byte[] concat(List<byte[]> parts) {
+        return join(parts).getData();
+    }
+
+    /**
+     * concat + 각 조각의 시작 위치 (디코딩/재인코딩 없이 프레임 단위로만 이어 붙임)
+     * - 시작 시각은 앞 조각들의 프레임 길이 합 (ms 로 자르기 전 μs 단위로 누적해 오차가 쌓이지 않음)
+     */
+    public static Joined join(List<byte[]> parts) {
+        long totalBytes = 0;
+        for (byte[] part : parts) {
+            totalBytes += part.length;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.min(totalBytes, Integer.MAX_VALUE - 8));
+        long[] startMillis = new long[parts.size()];
+        long[] startBytes = new long[parts.size()];
+        long micros = 0;
+
+        for (int i = 0; i < parts.size(); i++) {
+            startMillis[i] = micros / 1000;
+            startBytes[i] = out.size();
+
+            byte[] part = parts.get(i);
+            List<Frame> frames = parse(part);
+            if (frames.isEmpty()) {
+                continue;
+            }
+            Frame head = frames.get(0);
+            Frame tail = frames.get(frames.size() - 1);
+            out.write(part, head.getOffset(), tail.getOffset() + tail.getLength() - head.getOffset());
+            micros += tail.getEndMicros();
+        }
+        return new Joined(out.toByteArray(), startMillis, startBytes, micros / 1000);
+    }
+
+    @Getter
+    public static final class Joined {
+        private final byte[] data;
+        private final long[] startMillis;   // 조각 i 의 시작 시각
+        private final long[] startBytes;    // 조각 i 의 시작 byte (HTTP Range 요청용)
+        private final long durationMillis;
+
+        Joined(byte[] data, long[] startMillis, long[] startBytes, long durationMillis) {
+            this.data = data;
+            this.startMillis = startMillis;
+            this.startBytes = startBytes;
+            this.durationMillis = durationMillis;
+        }
+    }
+
+    @Getter
+    public static final class Slice {
+        private final byte[] data;
+        private final long startMillis;   // 원본 기준 잘린 구간의 실제 시작 시각 (프레임 경계)
+
+        Slice(byte[] data, long startMillis) {
+            this.data = data;
+            this.startMillis = startMillis;
+        }
+    }
+
+    private static int skipId3v2(byte[] mp3) {
+        if (mp3.length < 10 || mp3[0] != 'I' || mp3[1] != 'D' || mp3[2] != '3') {
+            return 0;
+        }
+        int size = ((mp3[6] & 0x7F) << 21) | ((mp3[7] & 0x7F) << 14) | ((mp3[8] & 0x7F) << 7) | (mp3[9] & 0x7F);
+        boolean footer = (mp3[5] & 0x10) != 0;
+        return 10 + size + (footer ? 10 : 0);
+    }
+
+    private static boolean isXingFrame(byte[] mp3, int offset, int length) {
+        // 사이드 정보 크기가 버전/채널마다 달라 첫 프레임 앞부분에서 태그를 찾음
+        int end = Math.min(offset + Math.min(length, 48), mp3.length - 4);
+        for (int i = offset + 4; i <= end; i++) {
+            String tag = new String(mp3, i, 4, StandardCharsets.US_ASCII);
+            if (tag.equals("Xing") || tag.equals("Info")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
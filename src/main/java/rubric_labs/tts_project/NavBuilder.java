@@ -1,8 +1,29 @@
 package rubric_labs.tts_project;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class NavBuilder {
 
-    public String buildNav(String bookTitle, int imageCount) {
+    /**
+     * @param imageFormats 페이지별 이미지 포맷 (페이지 순서)
+     */
+    public String buildNav(String bookTitle, List<PageImage.Format> imageFormats) {
+        List<String> imageFiles = new ArrayList<>(imageFormats.size());
+        for (int i = 1; i <= imageFormats.size(); i++) {
+            imageFiles.add(imageFormats.get(i - 1).epubFileName(i));
+        }
+        return buildNavWithImages(bookTitle, imageFiles);
+    }
+
+    /**
+     * 중복 제거된 이미지 (같은 내용의 페이지는 공유 파일로 연결)
+     */
+    public String buildNav(String bookTitle, AssetDedup assets) {
+        return buildNavWithImages(bookTitle, assets.imageFileNames());
+    }
+
+    private String buildNavWithImages(String bookTitle, List<String> imageFiles) {
         StringBuilder sb = new StringBuilder();
         sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
           .append("<html xmlns=\"http://www.w3.org/1999/xhtml\"\n")
@@ -22,8 +43,9 @@ public class NavBuilder {
           .append("      <h1>목차</h1>\n")
           .append("      <ol>\n")
           .append("        <li><a href=\"text/chap1.xhtml\">").append(escape(bookTitle)).append("</a></li>\n");
-        for (int i = 1; i <= imageCount; i++) {
-            sb.append("        <li><a href=\"images/page-").append(i).append(".png\">Page ").append(i).append("</a></li>\n");
+        for (int i = 1; i <= imageFiles.size(); i++) {
+            sb.append("        <li><a href=\"images/").append(imageFiles.get(i - 1))
+              .append("\">Page ").append(i).append("</a></li>\n");
         }
         sb.append("      </ol>\n")
           .append("    </nav>\n")
@@ -34,7 +56,7 @@ public class NavBuilder {
 
     // 오버로드된 메서드 (기존 호환성 유지)
     public String buildNav() {
-        return buildNav("Chapter 1", 0);
+        return buildNav("Chapter 1", List.of());
     }
 
     private String escape(String s) {
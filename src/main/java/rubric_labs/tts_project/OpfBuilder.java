@@ -2,10 +2,41 @@ package rubric_labs.tts_project;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 
 public class OpfBuilder {
 
-    public String buildOpf(String bookId, String title, String author, String language, int paragraphCount, int imageCount) {
+    /**
+     * @param imageFormats 페이지별 이미지 포맷 (페이지 순서, 크기 = 페이지 수)
+     */
+    public String buildOpf(String bookId, String title, String author, String language, int paragraphCount,
+                           List<PageImage.Format> imageFormats) {
+        List<String> audioFiles = new ArrayList<>(paragraphCount);
+        for (int i = 1; i <= paragraphCount; i++) {
+            audioFiles.add("chap1_p" + i + ".mp3");
+        }
+        List<String> imageFiles = new ArrayList<>(imageFormats.size());
+        for (int i = 1; i <= imageFormats.size(); i++) {
+            imageFiles.add(imageFormats.get(i - 1).epubFileName(i));
+        }
+        return buildOpf(bookId, title, author, language, imageFormats.size(), audioFiles, imageFiles, imageFormats);
+    }
+
+    /**
+     * 중복 제거된 자원으로 OPF 생성 (공유 이미지 / 오디오는 manifest item 하나)
+     */
+    public String buildOpf(String bookId, String title, String author, String language, int pageCount,
+                           AssetDedup assets) {
+        List<String> audioFiles = assets.audioPages().stream().map(assets::audioFileName).toList();
+        List<Integer> imagePages = assets.imagePages();
+        List<String> imageFiles = imagePages.stream().map(assets::imageFileName).toList();
+        List<PageImage.Format> imageFormats = imagePages.stream().map(assets::imageFormat).toList();
+        return buildOpf(bookId, title, author, language, pageCount, audioFiles, imageFiles, imageFormats);
+    }
+
+    private String buildOpf(String bookId, String title, String author, String language, int pageCount,
+                            List<String> audioFiles, List<String> imageFiles, List<PageImage.Format> imageFormats) {
         StringBuilder sb = new StringBuilder();
         sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>")
                 .append("<package xmlns=\"http://www.idpf.org/2007/opf\" version=\"3.0\" unique-identifier=\"BookId\">")
@@ -35,36 +66,36 @@ public class OpfBuilder {
                 .append("<item id=\"nav\" href=\"nav.xhtml\" media-type=\"application/xhtml+xml\" properties=\"nav\"/>");
 
         // ✅ 페이지별 XHTML 파일 (미디어 오버레이 연결)
-        for (int i = 1; i <= imageCount; i++) {
+        for (int i = 1; i <= pageCount; i++) {
             sb.append("<item id=\"page").append(i)
                     .append("\" href=\"text/page").append(i).append(".xhtml\" media-type=\"application/xhtml+xml\"")
                     .append(" media-overlay=\"smil").append(i).append("\"/>");
         }
 
         // ✅ 페이지별 SMIL 파일
-        for (int i = 1; i <= imageCount; i++) {
+        for (int i = 1; i <= pageCount; i++) {
             sb.append("<item id=\"smil").append(i)
                     .append("\" href=\"smil/page").append(i).append(".smil\" media-type=\"application/smil+xml\"/>");
         }
 
         // 오디오 파일들
-        for (int i = 1; i <= paragraphCount; i++) {
+        for (int i = 1; i <= audioFiles.size(); i++) {
             sb.append("<item id=\"audio").append(i)
-                    .append("\" href=\"audio/chap1_p").append(i).append(".mp3\" media-type=\"audio/mpeg\"/>");
+                    .append("\" href=\"audio/").append(audioFiles.get(i - 1)).append("\" media-type=\"audio/mpeg\"/>");
         }
 
         // 이미지 파일들
-        for (int i = 1; i <= imageCount; i++) {
+        for (int i = 1; i <= imageFiles.size(); i++) {
             sb.append("<item id=\"img").append(i)
-                    .append("\" href=\"images/page-").append(i)
-                    .append(".png\" media-type=\"image/png\"/>");
+                    .append("\" href=\"images/").append(imageFiles.get(i - 1))
+                    .append("\" media-type=\"").append(imageFormats.get(i - 1).mediaType()).append("\"/>");
         }
 
         sb.append("</manifest>");
 
         // ✅ 페이지별 spine 생성
         sb.append("<spine>");
-        for (int i = 1; i <= imageCount; i++) {
+        for (int i = 1; i <= pageCount; i++) {
             sb.append("<itemref idref=\"page").append(i).append("\"/>");
         }
         sb.append("</spine>");
@@ -80,8 +111,9 @@ public class OpfBuilder {
     }
 
     // 오버로드된 메서드 (기존 호환성 유지)
-    public String buildOpf(String bookId, String title, String language, int paragraphCount, int imageCount) {
-        return buildOpf(bookId, title, "Unknown Author", language, paragraphCount, imageCount);
+    public String buildOpf(String bookId, String title, String language, int paragraphCount,
+                           List<PageImage.Format> imageFormats) {
+        return buildOpf(bookId, title, "Unknown Author", language, paragraphCount, imageFormats);
     }
 
     public String buildContainerXml() {
@@ -0,0 +1,50 @@
+package rubric_labs.tts_project;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+
+/**
+ * 페이지 내용 지문 (텍스트 / 렌더링 이미지 SHA-256)
+ * - manifest.json 에 함께 기록해 두고, 개정판 업로드 시 바뀐 페이지만 골라내는 데 사용
+ */
+@Getter
+public class PageFingerprint {
+
+    private final String textHash;
+    private final String imageHash;
+
+    public PageFingerprint(String textHash, String imageHash) {
+        this.textHash = textHash;
+        this.imageHash = imageHash;
+    }
+
+    public static PageFingerprint of(String pageText, byte[] pageImage) {
+        return new PageFingerprint(
+                sha256Hex((pageText != null ? pageText : "").getBytes(StandardCharsets.UTF_8)),
+                pageImage != null ? sha256Hex(pageImage) : null
+        );
+    }
+
+    /**
+     * 이전 manifest 의 페이지와 내용이 같은지 (해시가 없는 예전 manifest 는 항상 다름)
+     */
+    public boolean matches(ManifestPage page) {
+        return page != null
+                && page.getTextHash() != null
+                && page.getTextHash().equals(textHash)
+                && Objects.equals(page.getImageHash(), imageHash);
+    }
+
+    public static String sha256Hex(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 을 사용할 수 없음", e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package rubric_labs.tts_project;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 인코딩된 페이지 이미지 (PageImageEncoder 결과)
+ * - 페이지마다 포맷이 다를 수 있으므로 EPUB 경로 / OPF media-type / S3 Content-Type 은 모두 format 에서 가져옴
+ * - 이 객체가 전체 크기(full) 이미지이고, 지연 로딩용 작은 사본(placeholder / thumbnail)은 renditions 에 담음
+ *   (EPUB 에는 full 만 들어가고 renditions 는 S3 / manifest.json 에만 사용)
+ */
+@Getter
+public final class PageImage {
+
+    public enum Format {
+        PNG("image/png", "png"),
+        JPEG("image/jpeg", "jpg");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public String mediaType() {
+            return mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        /**
+         * EPUB 내부 파일명 (OEBPS/images/ 기준)
+         */
+        public String epubFileName(int pageNumber) {
+            return "page-" + pageNumber + "." + extension;
+        }
+    }
+
+    /**
+     * 같은 페이지의 축소본
+     *
+     * @param name S3 경로와 manifest 에 쓰는 이름 (placeholder, thumbnail)
+     */
+    public record Rendition(String name, PageImage image) {
+    }
+
+    private final byte[] data;
+    private final Format format;
+    private final int width;
+    private final int height;
+    private final List<Rendition> renditions;
+
+    public PageImage(byte[] data, Format format, int width, int height) {
+        this(data, format, width, height, List.of());
+    }
+
+    public PageImage(byte[] data, Format format, int width, int height, List<Rendition> renditions) {
+        this.data = data;
+        this.format = format;
+        this.width = width;
+        this.height = height;
+        this.renditions = renditions;
+    }
+
+    public static List<Format> formats(List<PageImage> images) {
+        return images == null ? List.of() : images.stream().map(PageImage::getFormat).toList();
+    }
+
+    @Override
+    public String toString() {
+        return "PageImage[format=" + format + ", " + width + "x" + height + ", bytes=" + data.length
+                + ", renditions=" + renditions.size() + "]";
+    }
+}
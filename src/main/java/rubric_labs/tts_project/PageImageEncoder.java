@@ -0,0 +1,393 @@
+package rubric_labs.tts_project;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 렌더링된 페이지 이미지 인코딩 (페이지마다 프로파일 선택)
+ * - 긴 변이 app.render.image.max-dimension 보다 크면 먼저 축소
+ * - 페이지를 격자로 샘플링해 배경(가장 많은 색) 비율 / 색 수 / 채도를 보고 분류
+ *   - 선화·글자 페이지: 회색조면 8-bit grayscale PNG, 색이 256개 이하면 팔레트 PNG, 아니면 RGB PNG (무손실)
+ *   - 사진·그림 페이지: JPEG (app.render.image.jpeg-quality, 회색조면 1채널)
+ * - app.render.image.profile 로 png / jpeg 고정 가능 (auto 가 기본)
+ * - 같은 BufferedImage 에서 이어서 축소해 thumbnail / placeholder 축소본도 만듦 (다시 렌더링하지 않음, 포맷은 full 과 같음)
+ * - PDF 에 들어 있던 JPEG 을 그대로 쓰는 페이지(EmbeddedPageImage)는 full 을 건드리지 않고 축소본만 만듦
+ */
+@Slf4j
+@Component
+public class PageImageEncoder {
+
+    public enum Profile {
+        AUTO, PNG, JPEG
+    }
+
+    private static final int SAMPLE_GRID = 128;      // 가로/세로 최대 샘플 수
+    private static final int GRAY_TOLERANCE = 6;     // 채널 간 차이가 이 이하면 회색으로 봄
+    private static final int MAX_PALETTE = 256;
+    private static final float PLACEHOLDER_QUALITY = 0.5f;  // 흐리게 보여 주는 용도라 화질보다 크기 우선
+
+    private final Profile profile;
+    private final float jpegQuality;
+    private final int maxDimension;
+    private final double lineArtMinFlatRatio;
+    private final int lineArtMaxColors;
+    private final int thumbnailDimension;
+    private final int placeholderDimension;
+    private final PipelineMetrics metrics;
+
+    public PageImageEncoder(
+            @Value("${app.render.image.profile:auto}") String profile,
+            @Value("${app.render.image.jpeg-quality:0.82}") float jpegQuality,
+            @Value("${app.render.image.max-dimension:1600}") int maxDimension,
+            @Value("${app.render.image.line-art-min-flat-ratio:0.5}") double lineArtMinFlatRatio,
+            @Value("${app.render.image.line-art-max-colors:64}") int lineArtMaxColors,
+            @Value("${app.render.image.thumbnail-dimension:320}") int thumbnailDimension,
+            @Value("${app.render.image.placeholder-dimension:32}") int placeholderDimension,
+            PipelineMetrics metrics
+    ) {
+        this.profile = Profile.valueOf(profile.trim().toUpperCase(Locale.ROOT));
+        this.jpegQuality = Math.max(0.1f, Math.min(1.0f, jpegQuality));
+        this.maxDimension = maxDimension;
+        this.lineArtMinFlatRatio = lineArtMinFlatRatio;
+        this.lineArtMaxColors = lineArtMaxColors;
+        this.thumbnailDimension = thumbnailDimension;
+        this.placeholderDimension = placeholderDimension;
+        this.metrics = metrics;
+    }
+
+    public PageImage encode(BufferedImage image) throws IOException {
+        try (PipelineMetrics.StageTimer timer = metrics.start("image_encode")) {
+            BufferedImage scaled = downscale(image, maxDimension);
+            Content content = analyze(scaled);
+            PageImage.Format format = profile == Profile.JPEG || (profile == Profile.AUTO && !content.lineArt())
+                    ? PageImage.Format.JPEG
+                    : PageImage.Format.PNG;
+
+            // 축소본은 바로 앞 단계 결과에서 이어서 줄임 (full → thumbnail → placeholder), 작은 것부터 나열
+            List<PageImage.Rendition> renditions = new ArrayList<>(2);
+            long bytes = 0;
+            BufferedImage source = scaled;
+            if (thumbnailDimension > 0) {
+                source = downscale(source, thumbnailDimension);
+                PageImage thumbnail = write(source, format, content, jpegQuality);
+                renditions.add(0, new PageImage.Rendition("thumbnail", thumbnail));
+                bytes += thumbnail.getData().length;
+            }
+            if (placeholderDimension > 0) {
+                source = downscale(source, placeholderDimension);
+                PageImage placeholder = write(source, format, content, PLACEHOLDER_QUALITY);
+                renditions.add(0, new PageImage.Rendition("placeholder", placeholder));
+                bytes += placeholder.getData().length;
+            }
+
+            PageImage full = write(scaled, format, content, jpegQuality);
+            PageImage encoded = new PageImage(full.getData(), format, full.getWidth(), full.getHeight(), renditions);
+
+            log.debug("페이지 이미지 인코딩: {} (flat={}, colors={}, gray={})", encoded,
+                    String.format("%.2f", content.flatRatio()), content.colors(), content.gray());
+            timer.bytes(bytes + encoded.getData().length).success();
+            return encoded;
+        }
+    }
+
+    /**
+     * PDF 안의 JPEG 원본을 full 로 그대로 사용 (복호화 / 재인코딩 없음)
+     * - 축소본이 필요하면 JPEG 을 subsampling 으로 작게만 디코딩해서 만듦
+     */
+    public PageImage encodeEmbedded(EmbeddedPageImage embedded) throws IOException {
+        try (PipelineMetrics.StageTimer timer = metrics.start("image_passthrough")) {
+            List<PageImage.Rendition> renditions = new ArrayList<>(2);
+            long bytes = embedded.jpeg().length;
+
+            int largest = Math.max(thumbnailDimension, placeholderDimension);
+            if (largest > 0) {
+                int longest = Math.max(embedded.width(), embedded.height());
+                BufferedImage source = decodeSubsampled(embedded.jpeg(), Math.max(1, longest / (largest * 2)));
+                Content content = analyze(source);
+                if (thumbnailDimension > 0) {
+                    source = downscale(source, thumbnailDimension);
+                    PageImage thumbnail = write(source, PageImage.Format.JPEG, content, jpegQuality);
+                    renditions.add(0, new PageImage.Rendition("thumbnail", thumbnail));
+                    bytes += thumbnail.getData().length;
+                }
+                if (placeholderDimension > 0) {
+                    source = downscale(source, placeholderDimension);
+                    PageImage placeholder = write(source, PageImage.Format.JPEG, content, PLACEHOLDER_QUALITY);
+                    renditions.add(0, new PageImage.Rendition("placeholder", placeholder));
+                    bytes += placeholder.getData().length;
+                }
+            }
+
+            PageImage encoded = new PageImage(embedded.jpeg(), PageImage.Format.JPEG,
+                    embedded.width(), embedded.height(), renditions);
+            log.debug("페이지 JPEG 원본 사용: {}", encoded);
+            timer.bytes(bytes).pages(1).success();
+            return encoded;
+        }
+    }
+
+    private static BufferedImage decodeSubsampled(byte[] jpeg, int subsampling) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(jpeg))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                throw new IOException("JPEG 디코더를 찾을 수 없음");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private PageImage write(BufferedImage image, PageImage.Format format, Content content, float quality)
+            throws IOException {
+        byte[] data;
+        if (format == PageImage.Format.JPEG) {
+            data = writeJpeg(content.gray() ? toGray(image) : image, quality);
+        } else if (profile == Profile.PNG) {
+            data = writePng(image);
+        } else {
+            data = writePng(content.gray() ? toGray(image) : toIndexedOrSelf(image));
+        }
+        return new PageImage(data, format, image.getWidth(), image.getHeight());
+    }
+
+    // ---- 분류 ----
+
+    /**
+     * @param flatRatio 가장 많은 색이 샘플에서 차지하는 비율 (선화/글자 페이지는 배경 때문에 높음)
+     * @param colors    샘플의 서로 다른 색 수
+     */
+    record Content(double flatRatio, int colors, boolean gray, boolean lineArt) {
+    }
+
+    Content analyze(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int stepX = Math.max(1, width / SAMPLE_GRID);
+        int stepY = Math.max(1, height / SAMPLE_GRID);
+
+        int[] samples = new int[((width + stepX - 1) / stepX) * ((height + stepY - 1) / stepY)];
+        int[] row = new int[width];
+        int count = 0;
+        boolean gray = true;
+        for (int y = 0; y < height; y += stepY) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            for (int x = 0; x < width; x += stepX) {
+                int rgb = row[x] & 0xFFFFFF;
+                samples[count++] = rgb;
+                if (gray && chroma(rgb) > GRAY_TOLERANCE) {
+                    gray = false;
+                }
+            }
+        }
+
+        // 정렬 후 같은 값 구간 길이 = 색별 빈도
+        Arrays.sort(samples, 0, count);
+        int colors = 0;
+        int longestRun = 0;
+        for (int i = 0; i < count; ) {
+            int j = i;
+            while (j < count && samples[j] == samples[i]) {
+                j++;
+            }
+            colors++;
+            longestRun = Math.max(longestRun, j - i);
+            i = j;
+        }
+
+        double flatRatio = count == 0 ? 1.0 : (double) longestRun / count;
+        boolean lineArt = flatRatio >= lineArtMinFlatRatio || colors <= lineArtMaxColors;
+        return new Content(flatRatio, colors, gray, lineArt);
+    }
+
+    private static int chroma(int rgb) {
+        int r = (rgb >> 16) & 0xFF;
+        int g = (rgb >> 8) & 0xFF;
+        int b = rgb & 0xFF;
+        return Math.max(r, Math.max(g, b)) - Math.min(r, Math.min(g, b));
+    }
+
+    // ---- 변환 ----
+
+    /**
+     * 긴 변을 maxDimension 에 맞춤 (절반씩 줄인 뒤 마지막에 bilinear, 한 번에 크게 줄일 때 생기는 계단 현상 방지)
+     */
+    static BufferedImage downscale(BufferedImage image, int maxDimension) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int longest = Math.max(width, height);
+        if (maxDimension <= 0 || longest <= maxDimension) {
+            return image;
+        }
+        double scale = (double) maxDimension / longest;
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = image;
+        int currentWidth = width;
+        int currentHeight = height;
+        do {
+            currentWidth = Math.max(targetWidth, currentWidth / 2);
+            currentHeight = Math.max(targetHeight, currentHeight / 2);
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (currentWidth != targetWidth || currentHeight != targetHeight);
+        return current;
+    }
+
+    /**
+     * 8-bit grayscale (채널 가중 평균, ColorSpace 변환을 거치지 않아 밝기가 그대로 유지됨)
+     */
+    static BufferedImage toGray(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        BufferedImage gray = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] out = ((DataBufferByte) gray.getRaster().getDataBuffer()).getData();
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            int base = y * width;
+            for (int x = 0; x < width; x++) {
+                int rgb = row[x];
+                int luma = (((rgb >> 16) & 0xFF) * 77 + ((rgb >> 8) & 0xFF) * 150 + (rgb & 0xFF) * 29 + 128) >> 8;
+                out[base + x] = (byte) luma;
+            }
+        }
+        return gray;
+    }
+
+    /**
+     * 전체 색이 256개 이하면 팔레트 이미지, 넘으면 원본 그대로 (RGB PNG)
+     */
+    static BufferedImage toIndexedOrSelf(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        Palette palette = new Palette();
+        byte[] indices = new byte[width * height];
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            int base = y * width;
+            for (int x = 0; x < width; x++) {
+                int index = palette.indexOf(row[x] & 0xFFFFFF);
+                if (index < 0) {
+                    return image;
+                }
+                indices[base + x] = (byte) index;
+            }
+        }
+
+        IndexColorModel colorModel = palette.colorModel();
+        BufferedImage indexed = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_INDEXED, colorModel);
+        byte[] out = ((DataBufferByte) indexed.getRaster().getDataBuffer()).getData();
+        System.arraycopy(indices, 0, out, 0, indices.length);
+        return indexed;
+    }
+
+    /**
+     * 최대 256색 open addressing 해시 (픽셀마다 Integer 를 만들지 않음)
+     */
+    private static final class Palette {
+        private final int[] keys = new int[1024];
+        private final short[] slots = new short[1024];
+        private final int[] colors = new int[MAX_PALETTE];
+        private int size;
+
+        Palette() {
+            Arrays.fill(slots, (short) -1);
+        }
+
+        /**
+         * @return 팔레트가 가득 찼으면 -1
+         */
+        int indexOf(int rgb) {
+            int mask = keys.length - 1;
+            int i = (rgb * 0x9E3779B1) >>> 22 & mask;
+            while (slots[i] >= 0) {
+                if (keys[i] == rgb) {
+                    return slots[i];
+                }
+                i = (i + 1) & mask;
+            }
+            if (size == MAX_PALETTE) {
+                return -1;
+            }
+            keys[i] = rgb;
+            slots[i] = (short) size;
+            colors[size] = rgb;
+            return size++;
+        }
+
+        IndexColorModel colorModel() {
+            byte[] r = new byte[size];
+            byte[] g = new byte[size];
+            byte[] b = new byte[size];
+            for (int i = 0; i < size; i++) {
+                r[i] = (byte) (colors[i] >> 16);
+                g[i] = (byte) (colors[i] >> 8);
+                b[i] = (byte) colors[i];
+            }
+            return new IndexColorModel(8, size, r, g, b);
+        }
+    }
+
+    // ---- 코덱 ----
+
+    static byte[] writePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", baos);
+        return baos.toByteArray();
+    }
+
+    static byte[] writeJpeg(BufferedImage image, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ImageOutputStream out = new MemoryCacheImageOutputStream(baos)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return baos.toByteArray();
+    }
+}
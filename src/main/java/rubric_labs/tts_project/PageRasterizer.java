@@ -0,0 +1,211 @@
+package rubric_labs.tts_project;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * PDF 페이지 래스터화 + 이미지 인코딩
+ * - PDDocument 는 thread-safe 하지 않으므로 워커마다 같은 파일을 따로 로드하고 연속 페이지 구간을 나눠 렌더링
+ * - 인코딩(PageImageEncoder: 페이지별 PNG/JPEG 선택)은 별도 풀에서 수행 (렌더링과 겹쳐 진행)
+ * - 동시에 메모리에 있는 BufferedImage 수는 app.render.max-decoded-images 로 제한
+ * - 페이지 전체가 JPEG 한 장이면(EmbeddedPageImage) 렌더링하지 않고 압축 스트림을 그대로 사용
+ *   (app.render.embedded-jpeg-passthrough, 합성 페이지나 판별 실패 시 렌더링으로 대체)
+ * - 결과는 항상 페이지 순서
+ */
+@Slf4j
+@Component
+public class PageRasterizer {
+
+    private final int dpi;
+    private final int parallelism;
+    private final boolean embeddedJpegPassthrough;
+    private final Semaphore decodedImages;
+    private final ExecutorService renderPool;
+    private final ExecutorService encodePool;
+    private final PageImageEncoder encoder;
+    private final PipelineMetrics metrics;
+
+    public PageRasterizer(
+            @Value("${app.render.dpi:150}") int dpi,
+            @Value("${app.render.parallelism:4}") int parallelism,
+            @Value("${app.render.encode-threads:4}") int encodeThreads,
+            @Value("${app.render.max-decoded-images:8}") int maxDecodedImages,
+            @Value("${app.render.embedded-jpeg-passthrough:true}") boolean embeddedJpegPassthrough,
+            PageImageEncoder encoder,
+            PipelineMetrics metrics
+    ) {
+        this.dpi = dpi;
+        this.parallelism = Math.max(1, parallelism);
+        this.embeddedJpegPassthrough = embeddedJpegPassthrough;
+        this.decodedImages = new Semaphore(Math.max(1, maxDecodedImages));
+        this.renderPool = Executors.newFixedThreadPool(this.parallelism,
+                Thread.ofPlatform().name("page-render-", 0).daemon(true).factory());
+        this.encodePool = Executors.newFixedThreadPool(Math.max(1, encodeThreads),
+                Thread.ofPlatform().name("image-encode-", 0).daemon(true).factory());
+        this.encoder = encoder;
+        this.metrics = metrics;
+    }
+
+    /**
+     * 모든 페이지를 렌더링 + 인코딩 (페이지 순서)
+     */
+    public List<PageImage> renderAll(PdfDocumentSession session) {
+        int pageCount = session.getPageCount();
+        int workers = Math.min(parallelism, pageCount);
+
+        if (workers <= 1) {
+            List<PageImage> images = new ArrayList<>(pageCount);
+            for (int page = 0; page < pageCount; page++) {
+                images.add(renderPage(session, page));
+            }
+            return images;
+        }
+
+        @SuppressWarnings("unchecked")
+        CompletableFuture<PageImage>[] pages = new CompletableFuture[pageCount];
+        AtomicBoolean aborted = new AtomicBoolean(false);
+        List<Future<?>> renderTasks = new ArrayList<>(workers);
+
+        // 연속 페이지 구간 단위로 분할 (워커별 문서 복제본 하나)
+        int rangeSize = (pageCount + workers - 1) / workers;
+        for (int from = 0; from < pageCount; from += rangeSize) {
+            int start = from;
+            int end = Math.min(pageCount, from + rangeSize);
+            renderTasks.add(renderPool.submit(metrics.propagateCallable(() -> {
+                renderRange(session.getFile(), start, end, pages, aborted);
+                return null;
+            })));
+        }
+
+        try {
+            for (Future<?> task : renderTasks) {
+                task.get();
+            }
+
+            List<PageImage> images = new ArrayList<>(pageCount);
+            for (CompletableFuture<PageImage> page : pages) {
+                images.add(page.join());
+            }
+            log.info("페이지 렌더링 완료: {} 페이지 (워커 {}개)", pageCount, workers);
+            return images;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            aborted.set(true);
+            throw new RuntimeException("PDF 이미지 추출 중단", e);
+        } catch (ExecutionException | CompletionException e) {
+            aborted.set(true);
+            renderTasks.forEach(t -> t.cancel(true));
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new RuntimeException("PDF 이미지 추출 실패: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * 한 페이지만 렌더링 (세션 문서 사용, pageIndex 는 0-based)
+     */
+    public PageImage renderPage(PdfDocumentSession session, int pageIndex) {
+        PageImage embedded = extractEmbedded(session.getDocument(), pageIndex);
+        if (embedded != null) {
+            return embedded;
+        }
+        try {
+            BufferedImage image = rasterize(new PDFRenderer(session.getDocument()), pageIndex);
+            return encoder.encode(image);
+        } catch (IOException e) {
+            throw new RuntimeException("PDF 페이지 " + (pageIndex + 1) + " 이미지 추출 실패: " + e.getMessage(), e);
+        }
+    }
+
+    private void renderRange(Path pdfFile, int from, int to,
+                             CompletableFuture<PageImage>[] pages, AtomicBoolean aborted)
+            throws IOException, InterruptedException {
+        try (PDDocument document = Loader.loadPDF(pdfFile.toFile())) {
+            PDFRenderer renderer = new PDFRenderer(document);
+
+            for (int page = from; page < to; page++) {
+                if (aborted.get()) {
+                    return;
+                }
+
+                PageImage embedded = extractEmbedded(document, page);
+                if (embedded != null) {
+                    pages[page] = CompletableFuture.completedFuture(embedded);
+                    continue;
+                }
+
+                decodedImages.acquire();
+                BufferedImage image;
+                try {
+                    image = rasterize(renderer, page);
+                } catch (IOException | RuntimeException e) {
+                    decodedImages.release();
+                    throw e;
+                }
+
+                // 인코딩이 끝나면 BufferedImage 슬롯 반환
+                pages[page] = CompletableFuture
+                        .supplyAsync(metrics.propagate(() -> encodeUnchecked(image)), encodePool)
+                        .whenComplete((bytes, ex) -> decodedImages.release());
+            }
+        }
+    }
+
+    /**
+     * @return 페이지가 JPEG 한 장이 아니면 null
+     */
+    private PageImage extractEmbedded(PDDocument document, int pageIndex) {
+        if (!embeddedJpegPassthrough) {
+            return null;
+        }
+        try {
+            EmbeddedPageImage embedded = EmbeddedPageImage.find(document.getPage(pageIndex));
+            return embedded != null ? encoder.encodeEmbedded(embedded) : null;
+        } catch (IOException | RuntimeException e) {
+            log.debug("페이지 {} JPEG 원본 추출 실패, 렌더링으로 대체: {}", pageIndex + 1, e.getMessage());
+            return null;
+        }
+    }
+
+    private PageImage encodeUnchecked(BufferedImage image) {
+        try {
+            return encoder.encode(image);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private BufferedImage rasterize(PDFRenderer renderer, int pageIndex) throws IOException {
+        try (PipelineMetrics.StageTimer timer = metrics.start("rasterize")) {
+            BufferedImage image = renderer.renderImageWithDPI(pageIndex, dpi);
+            timer.pages(1).success();
+            return image;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderPool.shutdownNow();
+        encodePool.shutdownNow();
+    }
+}
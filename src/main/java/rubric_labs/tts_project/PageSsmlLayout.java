@@ -0,0 +1,56 @@
+package rubric_labs.tts_project;
+
+import java.util.List;
+
+/**
+ * 페이지 SSML (PdfReader.convertToSSML: <speak><p><s>문장</s>...</p></speak>) 안에서 문장 위치 계산
+ * - Polly SpeechMark 의 start/end 는 SSML 의 UTF-8 byte offset 이므로 문장 목록만으로 다시 계산 가능
+ */
+final class PageSsmlLayout {
+
+    private static final int SENTENCES_START = "<speak><p>".length();
+    private static final int SENTENCE_OPEN = "<s>".length();
+    private static final int SENTENCE_CLOSE = "</s>".length();
+
+    private PageSsmlLayout() {
+    }
+
+    /**
+     * 문장 i 의 본문이 시작하는 SSML byte offset
+     */
+    static int[] sentenceByteStarts(List<String> sentences) {
+        int[] starts = new int[sentences.size()];
+        int offset = SENTENCES_START;
+        for (int i = 0; i < sentences.size(); i++) {
+            starts[i] = offset + SENTENCE_OPEN;
+            offset = starts[i] + utf8Length(sentences.get(i)) + SENTENCE_CLOSE;
+        }
+        return starts;
+    }
+
+    static int utf8Length(String s) {
+        int bytes = 0;
+        for (int i = 0; i < s.length(); i++) {
+            bytes += utf8Length(s, i);
+            if (Character.isHighSurrogate(s.charAt(i))) {
+                i++;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * s 의 i 번째 글자(서로게이트 쌍이면 한 쌍)의 UTF-8 byte 수
+     */
+    static int utf8Length(String s, int i) {
+        char c = s.charAt(i);
+        if (c < 0x80) {
+            return 1;
+        } else if (c < 0x800) {
+            return 2;
+        } else if (Character.isHighSurrogate(c)) {
+            return 4;
+        }
+        return 3;
+    }
+}
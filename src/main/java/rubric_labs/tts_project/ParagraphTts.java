@@ -9,12 +9,23 @@ import java.util.Objects;
 public final class ParagraphTts {
     private final int paragraphIndex;
     private final byte[] mp3;
-    private final List<SpeechMark> marks;
+    private final SpeechMarkTrack track;   // mark 목록은 열 단위로 보관
 
-    public ParagraphTts(int paragraphIndex, byte[] mp3, List<SpeechMark> marks) {
+    public ParagraphTts(int paragraphIndex, byte[] mp3, SpeechMarkTrack track) {
         this.paragraphIndex = paragraphIndex;
         this.mp3 = mp3;
-        this.marks = marks;
+        this.track = track;
+    }
+
+    public ParagraphTts(int paragraphIndex, byte[] mp3, List<SpeechMark> marks) {
+        this(paragraphIndex, mp3, SpeechMarkTrack.of(marks));
+    }
+
+    /**
+     * track 의 List 뷰 (요소는 조회할 때마다 만들어짐, 반복 처리는 getTrack() 권장)
+     */
+    public List<SpeechMark> getMarks() {
+        return track.asList();
     }
 
     public int paragraphIndex() {
@@ -26,7 +37,7 @@ public final class ParagraphTts {
     }
 
     public List<SpeechMark> marks() {
-        return marks;
+        return getMarks();
     }
 
     @Override
@@ -36,12 +47,12 @@ public final class ParagraphTts {
         var that = (ParagraphTts) obj;
         return this.paragraphIndex == that.paragraphIndex &&
                 Objects.equals(this.mp3, that.mp3) &&
-                Objects.equals(this.marks, that.marks);
+                Objects.equals(this.track, that.track);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(paragraphIndex, mp3, marks);
+        return Objects.hash(paragraphIndex, mp3, track);
     }
 
     @Override
@@ -49,7 +60,7 @@ public final class ParagraphTts {
         return "ParagraphTts[" +
                 "paragraphIndex=" + paragraphIndex + ", " +
                 "mp3=" + mp3 + ", " +
-                "marks=" + marks + ']';
+                "marks=" + track + ']';
     }
 
 }
@@ -0,0 +1,107 @@
+package rubric_labs.tts_project;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * 요청 단위 PDF 파싱 세션
+ * - 업로드 파일을 임시 파일로 옮긴 뒤 PDDocument 를 한 번만 로드 (heap byte[] 복사 없음)
+ * - 메타데이터/텍스트/이미지/문단 추출은 모두 이 세션의 문서를 공유
+ * - 페이지 텍스트는 한 번만 추출해 메타데이터와 본문 추출이 같이 사용
+ */
+@Slf4j
+@Getter
+public class PdfDocumentSession implements AutoCloseable {
+
+    private final Path file;
+    private final String originalFilename;
+    private final PDDocument document;
+
+    // open(MultipartFile) 로 만든 임시 파일만 세션 종료 시 삭제
+    private final boolean ownsFile;
+
+    // 세션 내에서 한 번만 계산되는 메타데이터 캐시
+    @Setter
+    private BookMetadata metadata;
+
+    // 세션 내에서 한 번만 추출되는 페이지별 원문 텍스트 (PdfTextExtractor)
+    @Setter
+    private List<String> pageTexts;
+
+    private PdfDocumentSession(Path file, String originalFilename, PDDocument document, boolean ownsFile) {
+        this.file = file;
+        this.originalFilename = originalFilename;
+        this.document = document;
+        this.ownsFile = ownsFile;
+    }
+
+    /**
+     * 업로드 파일을 임시 파일로 저장하고 파일 기반 RandomAccessRead 로 문서를 로드
+     */
+    public static PdfDocumentSession open(MultipartFile multipartFile) {
+        Path tempFile = null;
+        try {
+            tempFile = Files.createTempFile("tts-upload-", ".pdf");
+            multipartFile.transferTo(tempFile);
+
+            PDDocument document = Loader.loadPDF(tempFile.toFile());
+            log.info("PDF 세션 열림: {} ({} 페이지)", multipartFile.getOriginalFilename(), document.getNumberOfPages());
+            return new PdfDocumentSession(tempFile, multipartFile.getOriginalFilename(), document, true);
+
+        } catch (IOException e) {
+            deleteQuietly(tempFile);
+            throw new RuntimeException("PDF 로드 실패: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 이미 디스크에 있는 PDF 로 세션 생성 (비동기 작업 입력 등, 파일은 호출자가 관리)
+     */
+    public static PdfDocumentSession open(Path pdfFile, String originalFilename) {
+        try {
+            PDDocument document = Loader.loadPDF(pdfFile.toFile());
+            log.info("PDF 세션 열림: {} ({} 페이지)", originalFilename, document.getNumberOfPages());
+            return new PdfDocumentSession(pdfFile, originalFilename, document, false);
+
+        } catch (IOException e) {
+            throw new RuntimeException("PDF 로드 실패: " + e.getMessage(), e);
+        }
+    }
+
+    public int getPageCount() {
+        return document.getNumberOfPages();
+    }
+
+    @Override
+    public void close() {
+        try {
+            document.close();
+        } catch (IOException e) {
+            log.warn("PDF 문서 닫기 실패: {}", e.getMessage());
+        } finally {
+            if (ownsFile) {
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("임시 파일 삭제 실패: {}", path);
+        }
+    }
+}
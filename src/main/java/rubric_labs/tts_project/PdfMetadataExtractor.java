@@ -1,58 +1,79 @@
 package rubric_labs.tts_project;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDDocumentInformation;
-import org.apache.pdfbox.text.PDFTextStripper;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
+import java.util.List;
 import java.util.UUID;
 import java.util.regex.Pattern;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class PdfMetadataExtractor {
 
+    private final PipelineMetrics metrics;
+    private final PdfTextExtractor textExtractor;
+
     public BookMetadata extractMetadata(MultipartFile file) {
-        try (PDDocument document = Loader.loadPDF(file.getBytes())) {
+        try (PdfDocumentSession session = PdfDocumentSession.open(file)) {
+            return extractMetadata(session);
+        }
+    }
+
+    /**
+     * 세션 문서에서 메타데이터 추출 (세션당 한 번만 계산)
+     */
+    public BookMetadata extractMetadata(PdfDocumentSession session) {
+        if (session.getMetadata() != null) {
+            metrics.tagBook(session.getMetadata());
+            return session.getMetadata();
+        }
+
+        BookMetadata metadata;
+        try {
+            PDDocument document = session.getDocument();
+
             // 1. PDF 메타데이터에서 정보 추출
             PDDocumentInformation info = document.getDocumentInformation();
 
-            String title = extractTitle(info, document);
+            // 언어 샘플과 첫 페이지 제목 후보는 본문과 같은 한 번의 추출 결과에서 가져옴
+            List<String> pageTexts = textExtractor.pageTexts(session);
+
+            String title = extractTitle(info, pageTexts);
             String author = extractAuthor(info);
-            String language = detectLanguage(document);
+            String language = detectLanguage(pageTexts);
             String voice = selectVoiceByLanguage(language);
             String bookId = generateBookId(title);
 
-            BookMetadata metadata = new BookMetadata(title, author, language, voice, bookId);
+            metadata = new BookMetadata(title, author, language, voice, bookId);
             log.info("추출된 메타데이터: {}", metadata);
-            return metadata;
 
-        } catch (IOException e) {
+        } catch (RuntimeException e) {
             log.error("PDF 메타데이터 추출 실패", e);
-            return BookMetadata.createDefault(file.getOriginalFilename());
+            metadata = BookMetadata.createDefault(session.getOriginalFilename());
         }
+
+        session.setMetadata(metadata);
+        metrics.tagBook(metadata);
+        return metadata;
     }
 
-    private String extractTitle(PDDocumentInformation info, PDDocument document) throws IOException {
+    private String extractTitle(PDDocumentInformation info, List<String> pageTexts) {
         // 1. PDF 메타데이터에서 제목 확인
         if (info.getTitle() != null && !info.getTitle().trim().isEmpty()) {
             return info.getTitle().trim();
         }
 
         // 2. 첫 페이지에서 제목 추출
-        return extractTitleFromFirstPage(document);
+        return extractTitleFromFirstPage(pageTexts.isEmpty() ? "" : pageTexts.get(0));
     }
 
-    private String extractTitleFromFirstPage(PDDocument document) throws IOException {
-        PDFTextStripper stripper = new PDFTextStripper();
-        stripper.setStartPage(1);
-        stripper.setEndPage(1);
-
-        String firstPageText = stripper.getText(document);
+    private String extractTitleFromFirstPage(String firstPageText) {
         String[] lines = firstPageText.split("\n");
 
         // 첫 번째 의미있는 텍스트를 제목으로 간주
@@ -77,12 +98,9 @@ public class PdfMetadataExtractor {
         return "Unknown Author";
     }
 
-    private String detectLanguage(PDDocument document) throws IOException {
-        PDFTextStripper stripper = new PDFTextStripper();
-        stripper.setStartPage(1);
-        stripper.setEndPage(Math.min(3, document.getNumberOfPages())); // 처음 3페이지만 확인
-
-        String sampleText = stripper.getText(document).toLowerCase();
+    private String detectLanguage(List<String> pageTexts) {
+        // 처음 3페이지만 확인
+        String sampleText = String.join("", pageTexts.subList(0, Math.min(3, pageTexts.size()))).toLowerCase();
 
         // 한글 감지
         if (containsKorean(sampleText)) {
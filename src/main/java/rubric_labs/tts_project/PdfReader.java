@@ -2,17 +2,9 @@ package rubric_labs.tts_project;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.pdfbox.Loader;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.rendering.PDFRenderer;
-import org.apache.pdfbox.text.PDFTextStripper;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -22,10 +14,18 @@ import java.util.stream.Collectors;
 public class PdfReader {
 
     private final PdfMetadataExtractor metadataExtractor;
+    private final PageRasterizer pageRasterizer;
+    private final PdfTextExtractor textExtractor;
 
     public String getSsmlFromPdfFile(MultipartFile file) {
-        BookMetadata metadata = metadataExtractor.extractMetadata(file);
-        List<String> cleanedPages = extractCleanText(file, metadata);
+        try (PdfDocumentSession session = PdfDocumentSession.open(file)) {
+            return getSsmlFromPdfFile(session);
+        }
+    }
+
+    public String getSsmlFromPdfFile(PdfDocumentSession session) {
+        BookMetadata metadata = metadataExtractor.extractMetadata(session);
+        List<String> cleanedPages = extractCleanText(session, metadata);
         String result = buildSSML(cleanedPages, metadata);
 
         log.info("Polly SSML request length={} for book: {}", result.length(), metadata.getTitle());
@@ -33,27 +33,32 @@ public class PdfReader {
     }
 
 
-    public List<byte[]> extractPageImages(MultipartFile file) {
-        List<byte[]> images = new ArrayList<>();
-
-        try (PDDocument document = Loader.loadPDF(file.getBytes())) {
-            PDFRenderer renderer = new PDFRenderer(document);
-            for (int page = 0; page < document.getNumberOfPages(); page++) {
-                BufferedImage bim = renderer.renderImageWithDPI(page, 150); // 해상도 조절 가능
-                ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                ImageIO.write(bim, "png", baos);
-                images.add(baos.toByteArray());
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("PDF 이미지 추출 실패: " + e.getMessage(), e);
+    public List<PageImage> extractPageImages(MultipartFile file) {
+        try (PdfDocumentSession session = PdfDocumentSession.open(file)) {
+            return extractPageImages(session);
         }
+    }
+
+    public List<PageImage> extractPageImages(PdfDocumentSession session) {
+        return pageRasterizer.renderAll(session);
+    }
 
-        return images;
+    /**
+     * 한 페이지만 렌더링 (스트리밍 패키징용, pageIndex 는 0-based)
+     */
+    public PageImage renderPageImage(PdfDocumentSession session, int pageIndex) {
+        return pageRasterizer.renderPage(session, pageIndex);
     }
 
     public List<ParagraphSegment> extractParagraphs(MultipartFile file) {
-        BookMetadata metadata = metadataExtractor.extractMetadata(file);
-        List<String> cleanedBlocks = extractCleanText(file, metadata);
+        try (PdfDocumentSession session = PdfDocumentSession.open(file)) {
+            return extractParagraphs(session);
+        }
+    }
+
+    public List<ParagraphSegment> extractParagraphs(PdfDocumentSession session) {
+        BookMetadata metadata = metadataExtractor.extractMetadata(session);
+        List<String> cleanedBlocks = extractCleanText(session, metadata);
 
         List<ParagraphSegment> segments = new ArrayList<>();
         int idx = 1;
@@ -71,20 +76,17 @@ public class PdfReader {
         return segments;
     }
 
-    private List<String> extractCleanText(MultipartFile file, BookMetadata metadata) {
-        log.info("Extracting clean text from file {}", file.getOriginalFilename());
+    private List<String> extractCleanText(PdfDocumentSession session, BookMetadata metadata) {
+        log.info("Extracting clean text from file {}", session.getOriginalFilename());
 
         List<String> cleanedPages = new ArrayList<>();
 
-        try (PDDocument document = Loader.loadPDF(file.getBytes())) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            int pageCount = document.getNumberOfPages();
+        try {
+            List<String> rawPages = textExtractor.pageTexts(session);
+            int pageCount = rawPages.size();
 
             for (int page = 1; page <= pageCount; page++) {
-                stripper.setStartPage(page);
-                stripper.setEndPage(page);
-
-                String rawText = stripper.getText(document);
+                String rawText = rawPages.get(page - 1);
 
                 // 페이지 필터링 (언어별 다른 규칙 적용)
                 if (shouldSkipPage(rawText, page, pageCount, metadata.getLanguage())) {
@@ -288,18 +290,17 @@ public class PdfReader {
      * 페이지별로 텍스트를 추출하여 반환
      */
     public List<String> extractTextByPage(MultipartFile file) {
-        List<String> pageTexts = new ArrayList<>();
-        BookMetadata metadata = metadataExtractor.extractMetadata(file);
-
-        try (PDDocument document = Loader.loadPDF(file.getBytes())) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            int pageCount = document.getNumberOfPages();
+        try (PdfDocumentSession session = PdfDocumentSession.open(file)) {
+            return extractTextByPage(session);
+        }
+    }
 
-            for (int page = 1; page <= pageCount; page++) {
-                stripper.setStartPage(page);
-                stripper.setEndPage(page);
+    public List<String> extractTextByPage(PdfDocumentSession session) {
+        List<String> pageTexts = new ArrayList<>();
+        BookMetadata metadata = metadataExtractor.extractMetadata(session);
 
-                String rawText = stripper.getText(document);
+        try {
+            for (String rawText : textExtractor.pageTexts(session)) {
                 String cleanText = filterContent(rawText, metadata.getLanguage());
 
                 pageTexts.add(cleanText.trim());
@@ -0,0 +1,89 @@
+package rubric_labs.tts_project;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * PDF 전체 페이지 텍스트를 한 번의 PDFTextStripper 실행으로 추출
+ * - 페이지마다 setStartPage/setEndPage 로 getText 를 부르면 호출할 때마다 페이지 트리를 처음부터 훑으므로
+ *   페이지 수에 대해 제곱 비용이 됨 → startPage/endPage 훅에서 출력 버퍼를 페이지 단위로 잘라냄
+ * - 결과는 세션에 저장해 메타데이터(언어/제목)와 본문 추출이 같이 사용
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PdfTextExtractor {
+
+    private final PipelineMetrics metrics;
+
+    /**
+     * 세션 문서의 페이지별 원문 텍스트 (index 0 = 1 페이지, 세션당 한 번만 추출)
+     */
+    public List<String> pageTexts(PdfDocumentSession session) {
+        synchronized (session) {
+            if (session.getPageTexts() == null) {
+                session.setPageTexts(extract(session.getDocument()));
+            }
+            return session.getPageTexts();
+        }
+    }
+
+    /**
+     * 캐시 없이 문서 전체를 한 번에 추출
+     */
+    public List<String> extract(PDDocument document) {
+        try (PipelineMetrics.StageTimer timer = metrics.start("text_extract")) {
+            PageCapturingStripper stripper = new PageCapturingStripper(document.getNumberOfPages());
+            stripper.writeText(document, stripper.buffer);
+            timer.pages(document.getNumberOfPages()).success();
+            return stripper.pages();
+
+        } catch (IOException e) {
+            throw new RuntimeException("PDF 텍스트 추출 실패: " + e.getMessage(), e);
+        }
+    }
+
+    private static final class PageCapturingStripper extends PDFTextStripper {
+        private final StringWriter buffer = new StringWriter();
+        private final String[] pages;
+        private int pageStart;
+
+        PageCapturingStripper(int pageCount) {
+            this.pages = new String[pageCount];
+        }
+
+        @Override
+        protected void startPage(PDPage page) throws IOException {
+            super.startPage(page);
+            output.flush();
+            pageStart = buffer.getBuffer().length();
+        }
+
+        @Override
+        protected void endPage(PDPage page) throws IOException {
+            super.endPage(page);
+            output.flush();
+            StringBuffer sb = buffer.getBuffer();
+            pages[getCurrentPageNo() - 1] = sb.substring(pageStart);
+            // 잘라낸 페이지는 버퍼에서 지워 문서 전체 텍스트를 한꺼번에 들고 있지 않음
+            sb.setLength(0);
+            pageStart = 0;
+        }
+
+        List<String> pages() {
+            List<String> result = new ArrayList<>(Arrays.asList(pages));
+            result.replaceAll(text -> text != null ? text : "");
+            return result;
+        }
+    }
+}
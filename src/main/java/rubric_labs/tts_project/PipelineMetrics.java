@@ -0,0 +1,221 @@
+package rubric_labs.tts_project;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 변환 파이프라인 단계별 Micrometer 지표
+ * - tts.pipeline.stage (timer)   : 단계 소요 시간, outcome=success|error
+ * - tts.pipeline.bytes (summary) : 단계가 만들어 낸 byte 수
+ * - tts.pipeline.pages (counter) : 단계가 처리한 페이지 수
+ * - tts.pipeline.dedup.ratio (summary) : 책 한 권의 원본 / 저장 byte 비율 (asset=image|audio, AssetDedup)
+ * 모든 지표는 stage / endpoint / language / voice 태그를 가짐
+ *
+ * endpoint/language/voice 는 요청 스레드의 컨텍스트(openScope → tagBook)에 두고,
+ * 다른 스레드 풀로 넘어가는 작업은 propagate() 로 감싸 같은 컨텍스트를 이어받음
+ */
+@Component
+public class PipelineMetrics {
+
+    private static final String UNKNOWN = "none";
+
+    private final MeterRegistry registry;
+    private final ThreadLocal<Context> current = new ThreadLocal<>();
+
+    public PipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * 요청/작업 단위 컨텍스트 시작 (close 시 이전 컨텍스트 복원)
+     */
+    public Scope openScope(String endpoint) {
+        return attach(new Context(endpoint));
+    }
+
+    /**
+     * 메타데이터가 정해지면 현재 컨텍스트(와 이를 이어받은 스레드들)의 language/voice 갱신
+     */
+    public void tagBook(BookMetadata metadata) {
+        Context context = current.get();
+        if (context != null && metadata != null) {
+            context.language = valueOrUnknown(metadata.getLanguage());
+            context.voice = valueOrUnknown(metadata.getVoice());
+        }
+    }
+
+    public <T> Supplier<T> propagate(Supplier<T> task) {
+        Context context = current.get();
+        return () -> {
+            try (Scope ignored = attach(context)) {
+                return task.get();
+            }
+        };
+    }
+
+    // Supplier 오버로드와 람다 해석이 겹치지 않도록 이름을 분리
+    public <T> Callable<T> propagateCallable(Callable<T> task) {
+        Context context = current.get();
+        return () -> {
+            try (Scope ignored = attach(context)) {
+                return task.call();
+            }
+        };
+    }
+
+    /**
+     * 단계 타이머 시작 - 태그는 시작 시점 컨텍스트로 고정되므로 비동기 콜백에서 close 해도 됨
+     */
+    public StageTimer start(String stage) {
+        return new StageTimer(tags(stage, null));
+    }
+
+    /**
+     * voice 를 호출 인자로 직접 아는 단계(Polly)용
+     */
+    public StageTimer start(String stage, String voice) {
+        return new StageTimer(tags(stage, voice));
+    }
+
+    public <T> T time(String stage, Supplier<T> body) {
+        try (StageTimer timer = start(stage)) {
+            T result = body.get();
+            timer.success();
+            return result;
+        }
+    }
+
+    public void recordBytes(String stage, long bytes) {
+        recordBytes(tags(stage, null), bytes);
+    }
+
+    public void countPages(String stage, int pages) {
+        countPages(tags(stage, null), pages);
+    }
+
+    public void recordDedupRatio(String asset, double ratio) {
+        DistributionSummary.builder("tts.pipeline.dedup.ratio")
+                .tags(tags("asset_dedup", null))
+                .tag("asset", asset)
+                .register(registry)
+                .record(ratio);
+    }
+
+    private void recordBytes(Tags tags, long bytes) {
+        DistributionSummary.builder("tts.pipeline.bytes")
+                .baseUnit("bytes")
+                .tags(tags)
+                .register(registry)
+                .record(bytes);
+    }
+
+    private void countPages(Tags tags, int pages) {
+        Counter.builder("tts.pipeline.pages")
+                .tags(tags)
+                .register(registry)
+                .increment(pages);
+    }
+
+    private Tags tags(String stage, String voice) {
+        Context context = current.get();
+        return Tags.of(
+                "stage", stage,
+                "endpoint", context != null ? context.endpoint : UNKNOWN,
+                "language", context != null ? context.language : UNKNOWN,
+                "voice", voice != null ? voice : context != null ? context.voice : UNKNOWN
+        );
+    }
+
+    private Scope attach(Context context) {
+        Context previous = current.get();
+        current.set(context);
+        return () -> {
+            if (previous != null) {
+                current.set(previous);
+            } else {
+                current.remove();
+            }
+        };
+    }
+
+    private static String valueOrUnknown(String value) {
+        return value != null && !value.isBlank() ? value : UNKNOWN;
+    }
+
+    private static final class Context {
+        private final String endpoint;
+        private volatile String language = UNKNOWN;
+        private volatile String voice = UNKNOWN;
+
+        private Context(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * 한 번의 단계 실행 측정
+     * - success() 를 호출하지 않고 close 되면 outcome=error
+     * - bytes()/pages() 는 close 시 같은 태그로 함께 기록
+     */
+    public final class StageTimer implements AutoCloseable {
+        private final Tags tags;
+        private final long startNanos = System.nanoTime();
+        private boolean success;
+        private long bytes = -1;
+        private int pages;
+        private boolean closed;
+
+        private StageTimer(Tags tags) {
+            this.tags = tags;
+        }
+
+        public StageTimer success() {
+            this.success = true;
+            return this;
+        }
+
+        public StageTimer bytes(long bytes) {
+            this.bytes = bytes;
+            return this;
+        }
+
+        public StageTimer pages(int pages) {
+            this.pages = pages;
+            return this;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            Timer.builder("tts.pipeline.stage")
+                    .tags(tags)
+                    .tag("outcome", success ? "success" : "error")
+                    .register(registry)
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+
+            if (success && bytes >= 0) {
+                recordBytes(tags, bytes);
+            }
+            if (success && pages > 0) {
+                countPages(tags, pages);
+            }
+        }
+    }
+}
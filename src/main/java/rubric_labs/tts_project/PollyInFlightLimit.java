@@ -0,0 +1,43 @@
+package rubric_labs.tts_project;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 동시에 진행되는 Polly 합성 단위(페이지 / 묶음 / 조각) 수 제한 (전체 요청 공용, app.polly.max-in-flight)
+ * - SynthesisExecutor 는 페이지(묶음)마다 acquire
+ * - PollyService 는 긴 SSML 을 조각으로 나눌 때 호출자의 permit 으로 한 조각씩 처리하고,
+ *   남는 permit 이 있을 때만(tryAcquire) 조각을 더 동시에 요청 → 조각 대기로 교착되지 않음
+ */
+@Component
+public class PollyInFlightLimit {
+
+    private final Semaphore permits;
+
+    public PollyInFlightLimit(@Value("${app.polly.max-in-flight:8}") int maxInFlight) {
+        this.permits = new Semaphore(Math.max(1, maxInFlight));
+    }
+
+    /**
+     * @param what 인터럽트 시 예외 메시지에 쓸 대상 설명
+     */
+    public void acquire(String what) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException(what + " 합성 대기 중 인터럽트");
+        }
+    }
+
+    public boolean tryAcquire() {
+        return permits.tryAcquire();
+    }
+
+    public void release() {
+        permits.release();
+    }
+}
@@ -0,0 +1,202 @@
+package rubric_labs.tts_project;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkException;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Polly 요청 클라이언트 측 속도 제한 + 재시도
+ * - SynthesizeSpeech TPS 한도는 계정(리전) 단위이므로 모든 요청이 계정 token bucket 하나에서 토큰을 받음
+ * - 음성별 bucket 은 그 안의 하위 예산 (voice-max-tps) → 한 음성의 큰 책이 계정 한도를 독차지하지 않음
+ *   요청은 음성 bucket → 계정 bucket 순서로 예약 (음성 예산을 기다리는 동안 계정 토큰을 잡고 있지 않음)
+ * - AIMD: 성공하면 초당 약 additive-increase TPS 씩 올리고, throttle 이면 decrease-factor 배로 낮춤
+ *   (동시에 진행 중이던 요청들이 한꺼번에 throttle 되어도 cooldown 동안은 한 번만 낮춤)
+ *   throttle 은 계정 bucket 과 그 요청의 음성 bucket 을 함께 낮춤
+ * - throttle / 5xx / 네트워크 오류는 full-jitter 지수 백오프로 재시도
+ */
+@Slf4j
+@Component
+public class PollyRateLimiter {
+
+    private final double initialTps;
+    private final double minTps;
+    private final double voiceMaxTps;
+    private final double additiveIncrease;
+    private final double decreaseFactor;
+    private final long cooldownNanos;
+    private final int maxAttempts;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private final MeterRegistry registry;
+    private final AimdBucket accountBucket;
+    private final ConcurrentHashMap<String, AimdBucket> voiceBuckets = new ConcurrentHashMap<>();
+
+    public PollyRateLimiter(MeterRegistry registry,
+                            @Value("${app.polly.rate.initial-tps:10}") double initialTps,
+                            @Value("${app.polly.rate.min-tps:1}") double minTps,
+                            @Value("${app.polly.rate.max-tps:20}") double maxTps,
+                            @Value("${app.polly.rate.voice-max-tps:10}") double voiceMaxTps,
+                            @Value("${app.polly.rate.additive-increase:1}") double additiveIncrease,
+                            @Value("${app.polly.rate.decrease-factor:0.7}") double decreaseFactor,
+                            @Value("${app.polly.rate.cooldown-ms:1000}") long cooldownMillis,
+                            @Value("${app.polly.retry.max-attempts:6}") int maxAttempts,
+                            @Value("${app.polly.retry.base-backoff-ms:100}") long baseBackoffMillis,
+                            @Value("${app.polly.retry.max-backoff-ms:5000}") long maxBackoffMillis) {
+        this.registry = registry;
+        this.initialTps = initialTps;
+        this.minTps = minTps;
+        this.voiceMaxTps = Math.min(voiceMaxTps, maxTps);
+        this.additiveIncrease = additiveIncrease;
+        this.decreaseFactor = decreaseFactor;
+        this.cooldownNanos = TimeUnit.MILLISECONDS.toNanos(cooldownMillis);
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+
+        this.accountBucket = new AimdBucket("account", Math.min(initialTps, maxTps), maxTps);
+        Gauge.builder("tts.polly.account.rate", accountBucket, AimdBucket::rate)
+                .description("계정 전체 Polly 요청 허용 속도 (TPS)")
+                .register(registry);
+    }
+
+    /**
+     * 음성 voiceId 의 bucket, 이어서 계정 bucket 에서 토큰을 받은 뒤 call 실행
+     * 재시도 가능한 오류는 백오프 후 다시 시도
+     */
+    public <T> T execute(String voiceId, Supplier<T> call) {
+        AimdBucket bucket = voiceBuckets.computeIfAbsent(voiceId, this::newVoiceBucket);
+
+        for (int attempt = 1; ; attempt++) {
+            sleepNanos(bucket.reserve());
+            sleepNanos(accountBucket.reserve());
+            try {
+                T result = call.get();
+                bucket.onSuccess();
+                accountBucket.onSuccess();
+                return result;
+
+            } catch (SdkException e) {
+                boolean throttled = isThrottle(e);
+                if (throttled) {
+                    accountBucket.onThrottle();
+                    bucket.onThrottle();
+                }
+                if (!isRetryable(e, throttled) || attempt >= maxAttempts) {
+                    throw e;
+                }
+
+                long backoff = backoffMillis(attempt);
+                registry.counter("tts.polly.retries", "voice", voiceId, "reason", throttled ? "throttle" : "error")
+                        .increment();
+                log.warn("Polly 요청 재시도 {}/{} ({}ms 후, 음성: {}, 현재 음성 {} / 계정 {} TPS): {}",
+                        attempt, maxAttempts - 1, backoff, voiceId, String.format("%.1f", bucket.rate()),
+                        String.format("%.1f", accountBucket.rate()), e.getMessage());
+                sleepNanos(TimeUnit.MILLISECONDS.toNanos(backoff));
+            }
+        }
+    }
+
+    private AimdBucket newVoiceBucket(String voiceId) {
+        AimdBucket bucket = new AimdBucket(voiceId, Math.min(initialTps, voiceMaxTps), voiceMaxTps);
+        Gauge.builder("tts.polly.rate", bucket, AimdBucket::rate)
+                .description("음성별 Polly 요청 허용 속도 (TPS)")
+                .tag("voice", voiceId)
+                .register(registry);
+        return bucket;
+    }
+
+    private static boolean isThrottle(SdkException e) {
+        return e instanceof AwsServiceException ase && ase.isThrottlingException();
+    }
+
+    private static boolean isRetryable(SdkException e, boolean throttled) {
+        if (throttled || e instanceof SdkClientException) {
+            return true;
+        }
+        return e instanceof AwsServiceException ase && ase.statusCode() >= 500;
+    }
+
+    // full jitter: [0, min(max, base * 2^attempt))
+    private long backoffMillis(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(Math.max(1, ceiling));
+    }
+
+    private static void sleepNanos(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Polly 요청 대기 중 인터럽트");
+        }
+    }
+
+    /**
+     * 예약식 AIMD token bucket - 토큰이 모자라면 음수로 빌려 쓰고 그만큼 기다림 (도착 순서대로 공정하게 분배)
+     * - 최대 적립량은 1초 분량 (유휴 뒤 짧은 burst 만 허용)
+     */
+    private final class AimdBucket {
+        private final String name;
+        private final double ceiling;
+        private double rate;
+        private double tokens;
+        private long lastRefillNanos = System.nanoTime();
+        private long lastDecreaseNanos = lastRefillNanos - cooldownNanos;
+
+        AimdBucket(String name, double rate, double ceiling) {
+            this.name = name;
+            this.ceiling = ceiling;
+            this.rate = Math.max(minTps, rate);
+            this.tokens = 1;
+        }
+
+        synchronized double rate() {
+            return rate;
+        }
+
+        /**
+         * @return 요청 전에 기다려야 하는 시간 (ns)
+         */
+        synchronized long reserve() {
+            long now = System.nanoTime();
+            tokens = Math.min(Math.max(1, rate), tokens + (now - lastRefillNanos) / 1e9 * rate);
+            lastRefillNanos = now;
+
+            tokens -= 1;
+            return tokens >= 0 ? 0 : (long) (-tokens / rate * 1e9);
+        }
+
+        // 초당 약 rate 번 성공하므로 성공마다 increase / rate 만큼 올리면 초당 increase TPS 증가
+        synchronized void onSuccess() {
+            rate = Math.min(ceiling, rate + additiveIncrease / rate);
+        }
+
+        synchronized void onThrottle() {
+            long now = System.nanoTime();
+            if (now - lastDecreaseNanos < cooldownNanos) {
+                return;
+            }
+            lastDecreaseNanos = now;
+            rate = Math.max(minTps, rate * decreaseFactor);
+            // 쌓아둔 burst 도 버려 바로 낮은 속도로 보냄
+            tokens = Math.min(tokens, 0);
+            log.info("Polly throttle 감지, {} 요청 속도 {} TPS 로 낮춤", name, String.format("%.1f", rate));
+        }
+    }
+}
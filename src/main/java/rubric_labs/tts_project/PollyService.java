@@ -1,29 +1,84 @@
 package rubric_labs.tts_project;
 
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.services.polly.PollyClient;
 import software.amazon.awssdk.services.polly.model.*;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class PollyService {
 
+    private static final List<SpeechMarkType> SPEECH_MARK_TYPES = List.of(SpeechMarkType.WORD, SpeechMarkType.SENTENCE);
+
+    // 묶음 합성은 페이지 경계 <mark> 의 시각도 필요
+    private static final List<SpeechMarkType> BATCH_SPEECH_MARK_TYPES =
+            List.of(SpeechMarkType.WORD, SpeechMarkType.SENTENCE, SpeechMarkType.SSML);
+
+    private static final String TRACK_KEY_SUFFIX = ".smt";
+
     private final PollyClient pollyClient;
+    private final SynthesisCache synthesisCache;
+    private final PipelineMetrics metrics;
+    private final PollyInFlightLimit inFlight;
+
+    // 요청 한도를 넘는 SSML 은 이 길이 이하 조각으로 나눠 합성 (SsmlChunker)
+    private final int chunkMaxChars;
+    // SSML 하나(책/페이지)당 동시에 합성하는 최대 조각 수 (inFlight 에 남는 자리가 있을 때만)
+    private final int chunkParallelism;
+
+    // MP3 / SpeechMarks 동시 요청용 (Polly 호출은 I/O 대기이므로 가상 스레드 사용)
+    private final ExecutorService markExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public PollyService(PollyClient pollyClient,
+                        SynthesisCache synthesisCache,
+                        PipelineMetrics metrics,
+                        PollyInFlightLimit inFlight,
+                        @Value("${app.polly.chunk.max-chars:2800}") int chunkMaxChars,
+                        @Value("${app.polly.chunk.parallelism:8}") int chunkParallelism) {
+        this.pollyClient = pollyClient;
+        this.synthesisCache = synthesisCache;
+        this.metrics = metrics;
+        this.inFlight = inFlight;
+        this.chunkMaxChars = chunkMaxChars;
+        this.chunkParallelism = chunkParallelism;
+    }
 
     public byte[] synthesize(String ssml) {
-        // 기본 음성으로 합성 (기존 호환성)
-        return synthesizeWithVoice(ssml, "Joanna");
+        // 기본 음성으로 합성 (기존 호환성), 책 전체 SSML 처럼 요청 한도를 넘으면 조각으로 나눠 합성
+        if (ssml.length() <= chunkMaxChars) {
+            return synthesizeWithVoice(ssml, "Joanna");
+        }
+        // SynthesisExecutor 를 거치지 않는 호출이므로 첫 조각용 permit 을 직접 받음
+        inFlight.acquire("책 전체 SSML");
+        try {
+            return synthesizeChunks(0, ssml, "Joanna", false).getMp3();
+        } finally {
+            inFlight.release();
+        }
     }
 
     public byte[] synthesizeWithVoice(String ssml, String voiceId) {
-        try {
+        // 동일한 (ssml, 음성, 포맷) 요청은 캐시에서 반환
+        String cacheKey = SynthesisCache.keyOf(ssml, voiceId, OutputFormat.MP3, List.of());
+        return synthesisCache.getOrLoad(cacheKey, () -> requestMp3(ssml, voiceId));
+    }
+
+    private byte[] requestMp3(String ssml, String voiceId) {
+        try (PipelineMetrics.StageTimer timer = metrics.start("polly_mp3", voiceId)) {
             SynthesizeSpeechRequest request = SynthesizeSpeechRequest.builder()
                     .text(ssml)
                     .textType(TextType.SSML)
@@ -35,6 +90,7 @@ public class PollyService {
             byte[] audioBytes = response.readAllBytes();
 
             log.info("음성 합성 완료: {} bytes, 음성: {}", audioBytes.length, voiceId);
+            timer.bytes(audioBytes.length).success();
             return audioBytes;
 
         } catch (PollyException | IOException e) {
@@ -43,15 +99,16 @@ public class PollyService {
         }
     }
 
+    /**
+     * 호출자가 PollyInFlightLimit permit 하나를 가진 상태라고 가정 (SynthesisExecutor)
+     */
     public ParagraphTts synthesizeParagraph(ParagraphSegment segment, String voiceId) {
         try {
-            // 1) 음성 파일 생성
-            byte[] mp3Data = synthesizeWithVoice(segment.getSsml(), voiceId);
-
-            // 2) SpeechMarks 생성 (타이밍 정보)
-            List<SpeechMark> speechMarks = getSpeechMarks(segment.getSsml(), voiceId);
-
-            return new ParagraphTts(segment.getIndex(), mp3Data, speechMarks);
+            // 글자가 빽빽한 페이지는 요청 한도를 넘을 수 있으므로 조각으로 나눠 합성
+            if (segment.getSsml().length() > chunkMaxChars) {
+                return synthesizeChunks(segment.getIndex(), segment.getSsml(), voiceId, true);
+            }
+            return synthesizeWithMarks(segment.getIndex(), segment.getSsml(), voiceId);
 
         } catch (Exception e) {
             log.error("문단 {} 음성 합성 실패: {}", segment.getIndex(), e.getMessage());
@@ -59,73 +116,216 @@ public class PollyService {
         }
     }
 
-    private List<SpeechMark> getSpeechMarks(String ssml, String voiceId) {
+    private ParagraphTts synthesizeWithMarks(int index, String ssml, String voiceId) {
+        // SpeechMarks(타이밍 정보)는 MP3 와 독립적이므로 동시에 요청
+        // getSpeechMarks 는 실패 시 빈 리스트를 반환하므로 join 에서 예외가 나지 않음
+        CompletableFuture<SpeechMarkTrack> marksFuture = CompletableFuture.supplyAsync(
+                metrics.propagate(() -> getSpeechMarks(ssml, voiceId)), markExecutor);
+
         try {
-            SynthesizeSpeechRequest request = SynthesizeSpeechRequest.builder()
-                    .text(ssml)
-                    .textType(TextType.SSML)
-                    .voiceId(voiceId)
-                    .outputFormat(OutputFormat.JSON)
-                    .speechMarkTypes(SpeechMarkType.WORD, SpeechMarkType.SENTENCE)
-                    .build();
+            // 1) 음성 파일 생성 (현재 스레드)
+            byte[] mp3Data = synthesizeWithVoice(ssml, voiceId);
 
-            ResponseInputStream<SynthesizeSpeechResponse> response = pollyClient.synthesizeSpeech(request);
-            String jsonMarks = new String(response.readAllBytes());
+            // 2) SpeechMarks 결과 합류
+            SpeechMarkTrack speechMarks = marksFuture.join();
 
-            return parseSpeechMarks(jsonMarks);
+            return new ParagraphTts(index, mp3Data, speechMarks);
 
-        } catch (Exception e) {
-            log.warn("SpeechMarks 생성 실패 (음성: {}): {}", voiceId, e.getMessage());
-            return List.of(); // 빈 리스트 반환으로 계속 진행
+        } catch (RuntimeException e) {
+            marksFuture.cancel(true);
+            throw e;
         }
     }
 
-    private List<SpeechMark> parseSpeechMarks(String json) {
-        // JSON 라인별 파싱 (각 라인이 하나의 SpeechMark JSON)
-        return json.lines()
-                .filter(line -> !line.trim().isEmpty())
-                .map(this::parseJsonLine)
-                .filter(mark -> mark != null)
-                .toList();
+    /**
+     * 요청 한도를 넘는 SSML 을 </p>, </s> 경계 조각으로 나눠 합성한 뒤 하나의 MP3 로 이어 붙임
+     * - SpeechMark 시각은 앞 조각들의 MP3 길이만큼, byte offset 은 원래 SSML 기준으로 옮김
+     * - 호출자 스레드가 자기 permit 으로 조각을 차례로 처리하고, PollyInFlightLimit 에 남는 자리가 있으면
+     *   최대 chunkParallelism - 1 개의 보조 작업자가 같은 조각 목록을 나눠 처리
+     *   → 조각 요청도 app.polly.max-in-flight 안에서만 동시에 진행
+     */
+    private ParagraphTts synthesizeChunks(int index, String ssml, String voiceId, boolean withMarks) {
+        List<SsmlChunker.Chunk> chunks = SsmlChunker.split(ssml, chunkMaxChars);
+        log.info("SSML {}자 → {} 조각으로 나눠 합성 (음성: {})", ssml.length(), chunks.size(), voiceId);
+
+        ChunkWork work = new ChunkWork(chunks, voiceId, withMarks);
+        List<CompletableFuture<Void>> helpers = new ArrayList<>();
+        try {
+            int next;
+            while ((next = work.claim()) >= 0) {
+                // 남은 조각이 있고 빈 permit 이 있으면 보조 작업자 추가 (permit 은 작업자가 끝날 때 반납)
+                while (helpers.size() < chunkParallelism - 1 && work.hasUnclaimed() && inFlight.tryAcquire()) {
+                    helpers.add(CompletableFuture.supplyAsync(metrics.propagate(() -> {
+                        try {
+                            work.drain();
+                            return null;
+                        } finally {
+                            inFlight.release();
+                        }
+                    }), markExecutor));
+                }
+                work.run(next);
+            }
+            CompletableFuture.allOf(helpers.toArray(CompletableFuture[]::new)).join();
+
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new RuntimeException("조각 음성 합성 실패: " + cause.getMessage(), cause);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("조각 음성 합성 실패: " + e.getMessage(), e);
+        }
+
+        List<byte[]> parts = new ArrayList<>(chunks.size());
+        SpeechMarkTrack.Builder marks = new SpeechMarkTrack.Builder(0);
+        long offsetMicros = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            ParagraphTts part = work.results[i];
+            int byteShift = chunks.get(i).getByteShift();
+            long offsetMillis = offsetMicros / 1000;
+
+            SpeechMarkTrack partMarks = part.getTrack();
+            for (int m = 0; m < partMarks.size(); m++) {
+                marks.addShifted(partMarks, m, byteShift, offsetMillis);
+            }
+            offsetMicros += Mp3Frames.durationMicros(part.getMp3());
+            parts.add(part.getMp3());
+        }
+
+        metrics.countPages("polly_chunk", chunks.size());
+        return new ParagraphTts(index, Mp3Frames.concat(parts), marks.build());
     }
 
-    private SpeechMark parseJsonLine(String jsonLine) {
+    /**
+     * 한 SSML 의 조각 목록 - 호출자와 보조 작업자가 앞에서부터 하나씩 가져가 합성
+     * - 하나라도 실패하면 남은 조각을 모두 가져간 것으로 처리해 다른 작업자도 곧 멈춤
+     * - results 는 작업자 future 완료(join) 이후에만 읽음
+     */
+    private final class ChunkWork {
+        private final List<SsmlChunker.Chunk> chunks;
+        private final String voiceId;
+        private final boolean withMarks;
+        private final ParagraphTts[] results;
+        private final AtomicInteger next = new AtomicInteger();
+
+        ChunkWork(List<SsmlChunker.Chunk> chunks, String voiceId, boolean withMarks) {
+            this.chunks = chunks;
+            this.voiceId = voiceId;
+            this.withMarks = withMarks;
+            this.results = new ParagraphTts[chunks.size()];
+        }
+
+        /**
+         * @return 다음 조각 번호, 남은 조각이 없으면 -1
+         */
+        int claim() {
+            int index = next.getAndIncrement();
+            return index < chunks.size() ? index : -1;
+        }
+
+        boolean hasUnclaimed() {
+            return next.get() < chunks.size();
+        }
+
+        void drain() {
+            int index;
+            while ((index = claim()) >= 0) {
+                run(index);
+            }
+        }
+
+        void run(int index) {
+            try {
+                String chunkSsml = chunks.get(index).getSsml();
+                results[index] = withMarks
+                        ? synthesizeWithMarks(0, chunkSsml, voiceId)
+                        : new ParagraphTts(0, synthesizeWithVoice(chunkSsml, voiceId), SpeechMarkTrack.EMPTY);
+            } catch (RuntimeException e) {
+                next.set(chunks.size());
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 짧은 페이지 여러 개를 한 번의 Polly 요청(MP3 + SpeechMarks)으로 합성한 뒤 페이지별로 나눔
+     * - 페이지 경계 mark 를 받지 못하거나 묶음 요청이 실패하면 페이지별 합성으로 대체
+     */
+    public List<ParagraphTts> synthesizeBatch(List<ParagraphSegment> segments, String voiceId) {
+        if (segments.size() == 1) {
+            return List.of(synthesizeParagraph(segments.get(0), voiceId));
+        }
+
+        SsmlBatch batch = new SsmlBatch(segments);
+        CompletableFuture<SpeechMarkTrack> marksFuture = CompletableFuture.supplyAsync(
+                metrics.propagate(() -> getSpeechMarks(batch.getSsml(), voiceId, BATCH_SPEECH_MARK_TYPES)), markExecutor);
+
         try {
-            // 간단한 JSON 파싱 (Jackson 대신 수동 파싱)
-            if (jsonLine.contains("\"type\":\"word\"") || jsonLine.contains("\"type\":\"sentence\"")) {
-                String type = extractJsonValue(jsonLine, "type");
-                int start = Integer.parseInt(extractJsonValue(jsonLine, "start"));
-                int end = Integer.parseInt(extractJsonValue(jsonLine, "end"));
-                long time = Long.parseLong(extractJsonValue(jsonLine, "time"));
-                String value = extractJsonValue(jsonLine, "value");
-
-                return new SpeechMark(type, start, end, time, value);
+            byte[] mp3Data = synthesizeWithVoice(batch.getSsml(), voiceId);
+            List<ParagraphTts> pages = batch.split(mp3Data, marksFuture.join());
+            if (pages != null) {
+                metrics.countPages("polly_batch", segments.size());
+                return pages;
             }
+            log.warn("묶음 합성 페이지 경계 mark 누락, 페이지별 합성으로 대체: 페이지 {}~{}",
+                    segments.get(0).getIndex(), segments.get(segments.size() - 1).getIndex());
+
         } catch (Exception e) {
-            log.debug("SpeechMark 파싱 실패: {}", jsonLine);
+            marksFuture.cancel(true);
+            log.warn("묶음 합성 실패, 페이지별 합성으로 대체: 페이지 {}~{} - {}",
+                    segments.get(0).getIndex(), segments.get(segments.size() - 1).getIndex(), e.getMessage());
         }
-        return null;
+
+        return segments.stream()
+                .map(segment -> synthesizeParagraph(segment, voiceId))
+                .toList();
     }
 
-    private String extractJsonValue(String json, String key) {
-        String pattern = "\"" + key + "\":\"";
-        int start = json.indexOf(pattern);
-        if (start == -1) {
-            // 숫자 값인 경우
-            pattern = "\"" + key + "\":";
-            start = json.indexOf(pattern);
-            if (start == -1) return "";
-            start += pattern.length();
-            int end = json.indexOf(",", start);
-            if (end == -1) end = json.indexOf("}", start);
-            return json.substring(start, end).trim();
-        } else {
-            start += pattern.length();
-            int end = json.indexOf("\"", start);
-            return json.substring(start, end);
+    private SpeechMarkTrack getSpeechMarks(String ssml, String voiceId) {
+        return getSpeechMarks(ssml, voiceId, SPEECH_MARK_TYPES);
+    }
+
+    private SpeechMarkTrack getSpeechMarks(String ssml, String voiceId, List<SpeechMarkType> types) {
+        try {
+            // 캐시에는 Polly JSON 대신 binary SpeechMarkTrack 을 저장 (key 도 구분)
+            String cacheKey = SynthesisCache.keyOf(ssml, voiceId, OutputFormat.JSON, types) + TRACK_KEY_SUFFIX;
+            byte[] trackBytes = synthesisCache.getOrLoad(cacheKey,
+                    () -> requestSpeechMarks(ssml, voiceId, types).toBytes());
+
+            return SpeechMarkTrack.fromBytes(trackBytes);
+
+        } catch (Exception e) {
+            log.warn("SpeechMarks 생성 실패 (음성: {}): {}", voiceId, e.getMessage());
+            return SpeechMarkTrack.EMPTY; // 빈 목록 반환으로 계속 진행
+        }
+    }
+
+    /**
+     * Polly 응답 스트림을 JSON 전체를 버퍼링하지 않고 바로 파싱
+     */
+    private SpeechMarkTrack requestSpeechMarks(String ssml, String voiceId, List<SpeechMarkType> types) {
+        SynthesizeSpeechRequest request = SynthesizeSpeechRequest.builder()
+                .text(ssml)
+                .textType(TextType.SSML)
+                .voiceId(voiceId)
+                .outputFormat(OutputFormat.JSON)
+                .speechMarkTypes(types)
+                .build();
+
+        try (PipelineMetrics.StageTimer timer = metrics.start("polly_marks", voiceId);
+             ResponseInputStream<SynthesizeSpeechResponse> response = pollyClient.synthesizeSpeech(request)) {
+            SpeechMarkTrack track = SpeechMarkParser.parse(response);
+            timer.success();
+            return track;
+        } catch (IOException e) {
+            throw new RuntimeException("SpeechMarks 응답 읽기 실패: " + e.getMessage(), e);
         }
     }
 
+    @PreDestroy
+    public void shutdown() {
+        markExecutor.shutdownNow();
+    }
+
     // 음성 목록 조회 (디버깅/관리 용도)
     public List<String> getAvailableVoices() {
         try {
@@ -0,0 +1,54 @@
+package rubric_labs.tts_project;
+
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.polly.PollyClient;
+import software.amazon.awssdk.services.polly.PollyServiceClientConfiguration;
+import software.amazon.awssdk.services.polly.model.DescribeVoicesRequest;
+import software.amazon.awssdk.services.polly.model.DescribeVoicesResponse;
+import software.amazon.awssdk.services.polly.model.SynthesizeSpeechRequest;
+import software.amazon.awssdk.services.polly.model.SynthesizeSpeechResponse;
+
+/**
+ * PollyRateLimiter 를 거쳐 요청하는 PollyClient
+ * - 이 프로젝트가 쓰는 SynthesizeSpeech / DescribeVoices 만 위임 (나머지 API 는 기본 구현대로 미지원)
+ */
+public class RateLimitedPollyClient implements PollyClient {
+
+    private final PollyClient delegate;
+    private final PollyRateLimiter rateLimiter;
+
+    public RateLimitedPollyClient(PollyClient delegate, PollyRateLimiter rateLimiter) {
+        this.delegate = delegate;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public ResponseInputStream<SynthesizeSpeechResponse> synthesizeSpeech(SynthesizeSpeechRequest request) {
+        return rateLimiter.execute(request.voiceIdAsString(), () -> delegate.synthesizeSpeech(request));
+    }
+
+    @Override
+    public DescribeVoicesResponse describeVoices(DescribeVoicesRequest request) {
+        return delegate.describeVoices(request);
+    }
+
+    @Override
+    public DescribeVoicesResponse describeVoices() {
+        return delegate.describeVoices();
+    }
+
+    @Override
+    public String serviceName() {
+        return delegate.serviceName();
+    }
+
+    @Override
+    public PollyServiceClientConfiguration serviceClientConfiguration() {
+        return delegate.serviceClientConfiguration();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -0,0 +1,63 @@
+package rubric_labs.tts_project;
+
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+/**
+ * S3 캐시 계층 (여러 서버가 공유하는 최하위 계층)
+ * - {prefix}{key} 로 저장
+ * - 서비스 오류뿐 아니라 네트워크/타임아웃(SdkClientException)도 miss / 저장 생략으로 처리
+ */
+@Slf4j
+public class S3CacheTier implements SynthesisCacheTier {
+
+    private final S3Client s3Client;
+    private final String bucketName;
+    private final String prefix;
+
+    public S3CacheTier(S3Client s3Client, String bucketName, String prefix) {
+        this.s3Client = s3Client;
+        this.bucketName = bucketName;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public String name() {
+        return "s3";
+    }
+
+    @Override
+    public byte[] get(String key) {
+        try {
+            GetObjectRequest request = GetObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(prefix + key)
+                    .build();
+            return s3Client.getObjectAsBytes(request).asByteArray();
+        } catch (NoSuchKeyException e) {
+            return null;
+        } catch (SdkException e) {
+            log.warn("S3 캐시 읽기 실패: key={}, 에러={}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String key, byte[] data) {
+        try {
+            PutObjectRequest request = PutObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(prefix + key)
+                    .contentType("application/octet-stream")
+                    .build();
+            s3Client.putObject(request, RequestBody.fromBytes(data));
+        } catch (SdkException e) {
+            log.warn("S3 캐시 쓰기 실패: key={}, 에러={}", key, e.getMessage());
+        }
+    }
+}
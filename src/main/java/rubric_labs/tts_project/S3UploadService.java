@@ -5,17 +5,29 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -23,7 +35,12 @@ import java.util.zip.ZipInputStream;
 public class S3UploadService {
 
     private final S3Client s3Client;
+    private final S3AsyncClient s3AsyncClient;
     private final ObjectMapper objectMapper;
+    private final PipelineMetrics metrics;
+
+    // 페이지 SpeechMarkTrack (SpeechMarkTrack.toBytes) - 개정판에서 바뀌지 않은 페이지를 합성 없이 재사용할 때 MP3 와 함께 읽음
+    private static final String MARKS_CONTENT_TYPE = "application/octet-stream";
 
     @Value("${spring.cloud.aws.s3.bucket}")
     private String bucketName;
@@ -31,124 +48,361 @@ public class S3UploadService {
     @Value("${spring.cloud.aws.region.static}")
     private String region;
 
+    @Value("${app.s3.upload.concurrency:16}")
+    private int uploadConcurrency;
+
     /**
-     * EPUB 및 모든 리소스를 S3에 업로드하고 manifest.json URL 반환
-     * 1. EPUB 압축 파일
-     * 2. EPUB 언집 파일들 (XHTML, SMIL, OPF, 이미지, 오디오 등)
-     * 3. manifest.json
+     * 책 한 권 업로드 시작
+     * - explodedEpubSink() 로 EPUB 엔트리를 패키징과 같은 패스에서 바로 업로드
+     * - complete() 에서 book.epub / 페이지 오디오·이미지 업로드 후 manifest.json 기록
      */
-    public String uploadEpubWithResources(
-            String bookId,
-            BookMetadata metadata,
-            byte[] epubBytes,
-            List<ParagraphTts> ttsList,
-            List<byte[]> pageImages,
-            List<ParagraphSegment> segments
-    ) throws IOException {
+    public BookUpload beginBookUpload(String bookId) {
+        return new BookUpload(bookId);
+    }
 
-        String basePath = "books/" + bookId + "/";
+    /**
+     * 기존 책의 manifest.json 조회 (없으면 empty)
+     */
+    public Optional<ManifestJson> readManifest(String bookId) throws IOException {
+        GetObjectRequest getRequest = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key("books/" + bookId + "/manifest.json")
+                .build();
 
-        // 1. EPUB 압축 파일 업로드
-        String epubKey = basePath + "book.epub";
-        uploadToS3(epubKey, epubBytes, "application/epub+zip");
-        log.info("✓ EPUB 압축 파일 업로드 완료: {}", epubKey);
+        try {
+            byte[] json = s3Client.getObjectAsBytes(getRequest).asByteArray();
+            return Optional.of(objectMapper.readValue(json, ManifestJson.class));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        }
+    }
 
-        // 2. EPUB 언집하여 내부 파일들 업로드
-        unzipAndUploadEpubContents(basePath + "epub/", epubBytes);
-        log.info("✓ EPUB 언집 파일들 업로드 완료");
+    /**
+     * 이전 업로드의 페이지 음성 (audio/page_N.mp3 + marks/page_N.smt) 조회
+     * - 개정판에서 바뀌지 않은 페이지를 Polly 호출 없이 다시 패키징할 때 사용
+     * - 동시에 진행되는 GET 수는 app.s3.upload.concurrency 로 제한
+     *
+     * @param audioFilePages 페이지 번호 → MP3 를 읽을 페이지 번호 (다른 페이지의 오디오를 공유하던 페이지는 소유 페이지, 같은 파일은 한 번만 조회)
+     * @return 페이지 번호 → 음성, 둘 중 하나라도 없는 페이지(이 형식 이전 업로드 등)는 결과에서 빠짐
+     */
+    public Map<Integer, ParagraphTts> readPageAudio(String bookId, Map<Integer, Integer> audioFilePages) throws IOException {
+        String basePath = "books/" + bookId + "/";
+        Semaphore window = new Semaphore(uploadConcurrency);
+        Map<Integer, CompletableFuture<byte[]>> mp3s = new HashMap<>();
+        Map<Integer, CompletableFuture<byte[]>> marks = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Integer> entry : audioFilePages.entrySet()) {
+            int filePage = entry.getValue();
+            if (!mp3s.containsKey(filePage)) {
+                mp3s.put(filePage, getOptional(basePath + pageAudioKey(filePage), window));
+            }
+            marks.put(entry.getKey(), getOptional(basePath + pageMarksKey(entry.getKey()), window));
+        }
 
-        // 3. 추가 오디오 파일들 업로드 (EPUB 외부용)
-        List<String> audioUrls = new ArrayList<>();
-        for (int i = 0; i < ttsList.size(); i++) {
-            ParagraphTts tts = ttsList.get(i);
-            String audioKey = basePath + "audio/page_" + (i + 1) + ".mp3";
-            uploadToS3(audioKey, tts.getMp3(), "audio/mpeg");
-            audioUrls.add(getS3Url(audioKey));
+        Map<Integer, ParagraphTts> result = new HashMap<>();
+        try {
+            for (int page : audioFilePages.keySet()) {
+                byte[] mp3 = mp3s.get(audioFilePages.get(page)).join();
+                byte[] track = marks.get(page).join();
+                if (mp3 != null && track != null) {
+                    result.put(page, new ParagraphTts(page, mp3, SpeechMarkTrack.fromBytes(track)));
+                }
+            }
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new IOException("기존 페이지 음성 조회 실패: " + cause.getMessage(), cause);
         }
-        log.info("✓ 오디오 파일 {} 개 업로드 완료", audioUrls.size());
+        log.info("✓ 기존 페이지 음성 {}/{} 페이지 재사용", result.size(), audioFilePages.size());
+        return result;
+    }
 
-        // 4. 추가 이미지 파일들 업로드 (EPUB 외부용)
-        List<String> imageUrls = new ArrayList<>();
-        for (int i = 0; i < pageImages.size(); i++) {
-            String imageKey = basePath + "images/page_" + (i + 1) + ".jpg";
-            uploadToS3(imageKey, pageImages.get(i), "image/jpeg");
-            imageUrls.add(getS3Url(imageKey));
+    /**
+     * @return 키가 없으면 null 로 완료
+     */
+    private CompletableFuture<byte[]> getOptional(String key, Semaphore window) throws IOException {
+        try {
+            window.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("S3 조회 대기 중 인터럽트: " + key, e);
         }
-        log.info("✓ 이미지 파일 {} 개 업로드 완료", imageUrls.size());
 
-        // 5. manifest.json 생성 및 업로드
-        ManifestJson manifest = createManifest(
-                bookId,
-                metadata,
-                getS3Url(epubKey),
-                audioUrls,
-                imageUrls,
-                segments
-        );
+        GetObjectRequest getRequest = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build();
 
-        String manifestKey = basePath + "manifest.json";
-        String manifestJson = objectMapper.writerWithDefaultPrettyPrinter()
-                .writeValueAsString(manifest);
+        PipelineMetrics.StageTimer timer = metrics.start("s3_get");
+        return s3AsyncClient.getObject(getRequest, AsyncResponseTransformer.<GetObjectResponse>toBytes())
+                .handle((ResponseBytes<GetObjectResponse> response, Throwable e) -> {
+                    window.release();
+                    try (timer) {
+                        if (e == null) {
+                            byte[] data = response.asByteArray();
+                            timer.bytes(data.length).success();
+                            return data;
+                        }
+                        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                        if (cause instanceof NoSuchKeyException) {
+                            timer.success();
+                            return null;
+                        }
+                        throw new CompletionException(cause);
+                    }
+                });
+    }
 
-        uploadToS3(manifestKey, manifestJson.getBytes(StandardCharsets.UTF_8), "application/json");
-        log.info("✓ manifest.json 업로드 완료: {}", manifestKey);
+    private static String pageAudioKey(int pageNumber) {
+        return "audio/page_" + pageNumber + ".mp3";
+    }
 
-        String manifestUrl = getS3Url(manifestKey);
-        log.info("✅ 모든 파일 업로드 완료. Manifest URL: {}", manifestUrl);
+    private static String pageMarksKey(int pageNumber) {
+        return "marks/page_" + pageNumber + ".smt";
+    }
 
-        return manifestUrl;
+    public String getManifestUrl(String bookId) {
+        return getS3Url("books/" + bookId + "/manifest.json");
     }
 
     /**
-     * EPUB 파일을 언집하여 내부 파일들을 S3에 업로드
+     * 개정판에서 페이지 수가 줄었을 때 새 마지막 페이지 뒤에 남은 이전 페이지 파일 삭제 (새 manifest.json 을 쓴 뒤 호출)
+     * - 다른 페이지의 파일을 공유하던 페이지는 그 파일을 지우지 않음 (소유 페이지가 더 앞에 있어 아직 쓰일 수 있음)
+     * - 삭제 실패는 경고만 남김 (새 manifest 는 이미 이 파일들을 가리키지 않음)
      */
-    private void unzipAndUploadEpubContents(String basePath, byte[] epubBytes) throws IOException {
-        try (ByteArrayInputStream bais = new ByteArrayInputStream(epubBytes);
-             ZipInputStream zis = new ZipInputStream(bais, StandardCharsets.UTF_8)) {
+    public void deleteRemovedPages(String bookId, Collection<ManifestPage> removedPages) {
+        String basePath = "books/" + bookId + "/";
+        String urlPrefix = getS3Url("");
+        List<ObjectIdentifier> objects = new ArrayList<>();
+        for (ManifestPage page : removedPages) {
+            int pageNumber = page.getPageNumber();
+            List<String> keys = new ArrayList<>(List.of(
+                    pageMarksKey(pageNumber),
+                    "timings/page_" + pageNumber + ".jsonl",
+                    "epub/OEBPS/text/page" + pageNumber + ".xhtml",
+                    "epub/OEBPS/smil/page" + pageNumber + ".smil"));
+            if (page.getAudioSharedWithPage() == null) {
+                keys.add(pageAudioKey(pageNumber));
+                keys.add("epub/OEBPS/audio/chap1_p" + pageNumber + ".mp3");
+            }
+            if (page.getImageSharedWithPage() == null) {
+                for (PageImage.Format format : PageImage.Format.values()) {
+                    keys.add("epub/OEBPS/images/" + format.epubFileName(pageNumber));
+                }
+                if (page.getImages() != null) {
+                    // images/page_N 과 축소본 (확장자는 페이지마다 다르므로 manifest 주소에서 가져옴)
+                    page.getImages().stream()
+                            .map(ManifestImageRendition::getUrl)
+                            .filter(url -> url != null && url.startsWith(urlPrefix + basePath))
+                            .forEach(url -> keys.add(url.substring(urlPrefix.length() + basePath.length())));
+                }
+            }
+            keys.forEach(key -> objects.add(ObjectIdentifier.builder().key(basePath + key).build()));
+        }
+
+        // DeleteObjects 는 요청당 최대 1000 개
+        for (int from = 0; from < objects.size(); from += 1000) {
+            List<ObjectIdentifier> part = objects.subList(from, Math.min(from + 1000, objects.size()));
+            DeleteObjectsRequest request = DeleteObjectsRequest.builder()
+                    .bucket(bucketName)
+                    .delete(Delete.builder().objects(part).quiet(true).build())
+                    .build();
+            try (PipelineMetrics.StageTimer timer = metrics.start("s3_delete")) {
+                DeleteObjectsResponse response = s3Client.deleteObjects(request);
+                if (response.hasErrors() && !response.errors().isEmpty()) {
+                    log.warn("삭제된 페이지 파일 일부 삭제 실패: {} 개 (첫 오류: {})",
+                            response.errors().size(), response.errors().get(0).message());
+                } else {
+                    timer.success();
+                }
+            } catch (SdkException e) {
+                log.warn("삭제된 페이지 파일 삭제 실패: bookId={}, 에러={}", bookId, e.getMessage());
+            }
+        }
+        log.info("✓ 삭제된 페이지 {} 개의 파일 {} 개 정리", removedPages.size(), objects.size());
+    }
 
-            ZipEntry entry;
-            int fileCount = 0;
+    /**
+     * 한 권 분량의 S3 업로드
+     * 1. EPUB 언집 파일들 (XHTML, SMIL, OPF, 이미지, 오디오 등) - 패키징 중 explodedEpubSink 로 전달
+     * 2. EPUB 압축 파일
+     * 3. 페이지별 오디오 / 이미지(모든 해상도) / 단어 타이밍 트랙, 책 전체 MP3 (EPUB 외부용)
+     * 4. manifest.json (다른 모든 업로드가 성공한 뒤에만 기록)
+     */
+    public class BookUpload {
+        private final String bookId;
+        private final String basePath;
+        private final UploadBatch batch = new UploadBatch();
+
+        private BookUpload(String bookId) {
+            this.bookId = bookId;
+            this.basePath = "books/" + bookId + "/";
+        }
 
-            while ((entry = zis.getNextEntry()) != null) {
-                if (entry.isDirectory()) {
+        /**
+         * EPUB 내부 경로 그대로 books/{bookId}/epub/ 아래에 업로드하는 sink
+         */
+        public EpubEntrySink explodedEpubSink() {
+            String epubBasePath = basePath + "epub/";
+            return (path, data) -> batch.upload(epubBasePath + path, data, getContentType(path));
+        }
+
+        /**
+         * @param fingerprints manifest 에 기록할 페이지 지문 (페이지 순서, 비어 있으면 기록 안 함)
+         * @param assets       EPUB 패키징에 쓴 중복 제거 결과 (같은 내용은 처음 나온 페이지의 키 하나만 업로드)
+         * @param changedPages 오디오/이미지를 다시 올릴 페이지 번호 (1-based), null 이면 전체
+         *                     (개정판에서 내용이 바뀌었거나 중복 제거 소유 페이지가 달라진 페이지)
+         */
+        public String complete(
+                BookMetadata metadata,
+                byte[] epubBytes,
+                List<ParagraphTts> ttsList,
+                List<PageImage> pageImages,
+                List<ParagraphSegment> segments,
+                List<PageFingerprint> fingerprints,
+                AssetDedup assets,
+                Set<Integer> changedPages
+        ) throws IOException {
+
+            // 1. EPUB 압축 파일 업로드 (크기가 크면 multipart)
+            String epubKey = basePath + "book.epub";
+            batch.upload(epubKey, epubBytes, "application/epub+zip");
+
+            // 2. 추가 오디오 파일들 업로드 (EPUB 외부용, 내용이 같은 페이지는 소유 페이지의 키를 공유)
+            // - SpeechMarkTrack 도 페이지마다 함께 저장 (다음 개정판에서 바뀌지 않은 페이지를 합성 없이 재사용)
+            List<String> audioUrls = new ArrayList<>();
+            for (int i = 0; i < ttsList.size(); i++) {
+                int owner = ownerOrSelf(assets.audioOwner(i + 1), i + 1);
+                String audioKey = basePath + pageAudioKey(owner);
+                if (isChanged(changedPages, i + 1)) {
+                    if (owner == i + 1) {
+                        batch.upload(audioKey, ttsList.get(i).getMp3(), "audio/mpeg");
+                    }
+                    batch.upload(basePath + pageMarksKey(i + 1), ttsList.get(i).getTrack().toBytes(), MARKS_CONTENT_TYPE);
+                }
+                audioUrls.add(getS3Url(audioKey));
+            }
+
+            // 3. 추가 이미지 파일들 업로드 (EPUB 외부용, 확장자 / Content-Type 은 페이지별 인코딩 포맷)
+            // - full 은 images/page_N, 축소본은 images/{placeholder|thumbnail}/page_N (모두 같은 batch 에서 병렬 업로드)
+            List<String> imageUrls = new ArrayList<>();
+            List<List<ManifestImageRendition>> imageRenditions = new ArrayList<>();
+            for (int i = 0; i < pageImages.size(); i++) {
+                int owner = ownerOrSelf(assets.imageOwner(i + 1), i + 1);
+                PageImage image = pageImages.get(owner - 1);
+                boolean upload = owner == i + 1 && isChanged(changedPages, i + 1);
+                List<ManifestImageRendition> renditions = new ArrayList<>(image.getRenditions().size() + 1);
+                for (PageImage.Rendition rendition : image.getRenditions()) {
+                    String renditionKey = basePath + "images/" + rendition.name() + "/page_" + owner
+                            + "." + rendition.image().getFormat().extension();
+                    renditions.add(uploadImage(renditionKey, rendition.name(), rendition.image(), upload));
+                }
+
+                String imageKey = basePath + "images/page_" + owner + "." + image.getFormat().extension();
+                renditions.add(uploadImage(imageKey, "full", image, upload));
+                imageUrls.add(getS3Url(imageKey));
+                imageRenditions.add(renditions);
+            }
+
+            // 4. 책 전체 MP3 (페이지 MP3 프레임을 그대로 이어 붙인 한 파일, 클라이언트가 Range 요청으로 재생)
+            String bookAudioKey = basePath + "audio/book.mp3";
+            Mp3Frames.Joined bookAudio;
+            try (PipelineMetrics.StageTimer timer = metrics.start("mp3_concat")) {
+                bookAudio = Mp3Frames.join(ttsList.stream().map(ParagraphTts::getMp3).toList());
+                timer.bytes(bookAudio.getData().length).pages(ttsList.size()).success();
+            }
+            batch.upload(bookAudioKey, bookAudio.getData(), "audio/mpeg");
+
+            // 5. 단어 타이밍 트랙 (웹 리더 하이라이트용)
+            // - 페이지당 수 KB 라 변경 여부와 관계없이 모두 올림 (이전 버전 업로드에는 없을 수 있으므로)
+            List<String> wordTimingUrls = new ArrayList<>();
+            for (int i = 0; i < ttsList.size(); i++) {
+                byte[] timings = i < segments.size() ? WordTimings.build(segments.get(i), ttsList.get(i)) : null;
+                if (timings == null) {
+                    wordTimingUrls.add(null);
                     continue;
                 }
+                String timingKey = basePath + "timings/page_" + (i + 1) + ".jsonl";
+                batch.upload(timingKey, timings, WordTimings.CONTENT_TYPE);
+                wordTimingUrls.add(getS3Url(timingKey));
+            }
 
-                String fileName = entry.getName();
+            // 모든 리소스 업로드 완료 대기 (하나라도 실패하면 manifest 를 쓰지 않음)
+            batch.awaitAll();
+            log.info("✓ 리소스 {} 개 업로드 완료 (전체 {} 페이지 중 {} 페이지 갱신, 중복 제거 {} bytes)",
+                    batch.getCount(), imageUrls.size(),
+                    changedPages == null ? imageUrls.size() : changedPages.size(),
+                    assets.savedBytes());
+
+            // 6. manifest.json 생성 및 업로드
+            ManifestJson manifest = createManifest(
+                    bookId,
+                    metadata,
+                    getS3Url(epubKey),
+                    audioUrls,
+                    imageUrls,
+                    wordTimingUrls,
+                    segments,
+                    fingerprints
+            );
+            applyBookAudio(manifest, getS3Url(bookAudioKey), bookAudio);
+            for (int i = 0; i < manifest.getPages().size() && i < imageRenditions.size(); i++) {
+                manifest.getPages().get(i).setImages(imageRenditions.get(i));
+            }
+            applySharedAssets(manifest, assets);
 
-                // 파일 내용 읽기
-                byte[] fileData = readZipEntryData(zis);
+            String manifestKey = basePath + "manifest.json";
+            String manifestJson = objectMapper.writerWithDefaultPrettyPrinter()
+                    .writeValueAsString(manifest);
 
-                // Content-Type 추론
-                String contentType = getContentType(fileName);
+            uploadToS3(manifestKey, manifestJson.getBytes(StandardCharsets.UTF_8), "application/json");
+            log.info("✓ manifest.json 업로드 완료: {}", manifestKey);
 
-                // S3에 업로드
-                String s3Key = basePath + fileName;
-                uploadToS3(s3Key, fileData, contentType);
+            String manifestUrl = getS3Url(manifestKey);
+            log.info("✅ 모든 파일 업로드 완료. Manifest URL: {}", manifestUrl);
 
-                fileCount++;
-                log.debug("  - {} 업로드 완료 ({})", fileName, contentType);
+            return manifestUrl;
+        }
 
-                zis.closeEntry();
-            }
+        private static boolean isChanged(Set<Integer> changedPages, int pageNumber) {
+            return changedPages == null || changedPages.contains(pageNumber);
+        }
 
-            log.info("✓ EPUB 내부 파일 {} 개 언집 및 업로드 완료", fileCount);
+        /**
+         * @param upload false 면 업로드 없이 manifest 항목만 (개정판에서 바뀌지 않은 페이지, 다른 페이지와 공유하는 파일)
+         */
+        private ManifestImageRendition uploadImage(String key, String name, PageImage image, boolean upload) throws IOException {
+            if (upload) {
+                batch.upload(key, image.getData(), image.getFormat().mediaType());
+            }
+            ManifestImageRendition rendition = new ManifestImageRendition();
+            rendition.setName(name);
+            rendition.setUrl(getS3Url(key));
+            rendition.setMediaType(image.getFormat().mediaType());
+            rendition.setWidth(image.getWidth());
+            rendition.setHeight(image.getHeight());
+            rendition.setBytes(image.getData().length);
+            return rendition;
         }
     }
 
     /**
-     * ZipEntry에서 데이터 읽기
+     * 다른 페이지의 파일을 가리키는 페이지에 소유 페이지 번호 기록
+     * (다음 개정판에서 소유 페이지가 바뀌면 이 페이지도 다시 올리도록)
      */
-    private byte[] readZipEntryData(ZipInputStream zis) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        byte[] buffer = new byte[4096];
-        int bytesRead;
-
-        while ((bytesRead = zis.read(buffer)) != -1) {
-            baos.write(buffer, 0, bytesRead);
+    private static void applySharedAssets(ManifestJson manifest, AssetDedup assets) {
+        for (ManifestPage page : manifest.getPages()) {
+            int imageOwner = assets.imageOwner(page.getPageNumber());
+            int audioOwner = assets.audioOwner(page.getPageNumber());
+            if (imageOwner != 0 && imageOwner != page.getPageNumber()) {
+                page.setImageSharedWithPage(imageOwner);
+            }
+            if (audioOwner != 0 && audioOwner != page.getPageNumber()) {
+                page.setAudioSharedWithPage(audioOwner);
+            }
         }
+    }
 
-        return baos.toByteArray();
+    private static int ownerOrSelf(int owner, int pageNumber) {
+        return owner == 0 ? pageNumber : owner;
     }
 
     /**
@@ -194,7 +448,73 @@ public class S3UploadService {
                 .contentType(contentType)
                 .build();
 
-        s3Client.putObject(putRequest, RequestBody.fromBytes(data));
+        try (PipelineMetrics.StageTimer timer = metrics.start("s3_put")) {
+            s3Client.putObject(putRequest, RequestBody.fromBytes(data));
+            timer.bytes(data.length).success();
+        }
+    }
+
+    /**
+     * 한 권 분량의 비동기 업로드 묶음
+     * - 동시에 진행되는 PUT 수를 app.s3.upload.concurrency 로 제한 (초과 시 호출 스레드 대기)
+     * - 재시도/백오프와 multipart 는 S3AsyncClient 설정에서 처리
+     * - 하나라도 실패하면 이후 업로드는 시작하지 않음
+     */
+    private class UploadBatch {
+        private final Semaphore window = new Semaphore(uploadConcurrency);
+        private final List<CompletableFuture<?>> uploads = new ArrayList<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        void upload(String key, byte[] data, String contentType) throws IOException {
+            throwIfFailed();
+            try {
+                window.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("S3 업로드 대기 중 인터럽트: " + key, e);
+            }
+
+            PutObjectRequest putRequest = PutObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .contentType(contentType)
+                    .build();
+
+            // 태그는 호출 스레드 기준으로 고정, 기록은 완료 콜백에서
+            PipelineMetrics.StageTimer timer = metrics.start("s3_put").bytes(data.length);
+            CompletableFuture<?> future = s3AsyncClient.putObject(putRequest, AsyncRequestBody.fromBytesUnsafe(data))
+                    .whenComplete((response, e) -> {
+                        window.release();
+                        if (e != null) {
+                            failure.compareAndSet(null, e);
+                            log.error("S3 업로드 실패: {} - {}", key, e.getMessage());
+                        } else {
+                            timer.success();
+                        }
+                        timer.close();
+                    });
+            uploads.add(future);
+        }
+
+        void awaitAll() throws IOException {
+            try {
+                CompletableFuture.allOf(uploads.toArray(new CompletableFuture[0])).join();
+            } catch (CompletionException e) {
+                failure.compareAndSet(null, e.getCause() != null ? e.getCause() : e);
+            }
+            throwIfFailed();
+        }
+
+        int getCount() {
+            return uploads.size();
+        }
+
+        private void throwIfFailed() throws IOException {
+            Throwable cause = failure.get();
+            if (cause != null) {
+                throw new IOException("S3 업로드 실패: " + cause.getMessage(), cause);
+            }
+        }
     }
 
     /**
@@ -205,6 +525,20 @@ public class S3UploadService {
                 bucketName, region, key);
     }
 
+    /**
+     * 책 전체 MP3 주소와 페이지별 시작 위치(seek table)를 manifest 에 기록
+     */
+    private void applyBookAudio(ManifestJson manifest, String bookAudioUrl, Mp3Frames.Joined bookAudio) {
+        manifest.setBookAudioUrl(bookAudioUrl);
+        manifest.setBookAudioDurationMs(bookAudio.getDurationMillis());
+
+        List<ManifestPage> pages = manifest.getPages();
+        for (int i = 0; i < pages.size() && i < bookAudio.getStartMillis().length; i++) {
+            pages.get(i).setBookAudioOffsetMs(bookAudio.getStartMillis()[i]);
+            pages.get(i).setBookAudioByteOffset(bookAudio.getStartBytes()[i]);
+        }
+    }
+
     /**
      * manifest.json 생성
      */
@@ -214,7 +548,9 @@ public class S3UploadService {
             String epubUrl,
             List<String> audioUrls,
             List<String> imageUrls,
-            List<ParagraphSegment> segments
+            List<String> wordTimingUrls,
+            List<ParagraphSegment> segments,
+            List<PageFingerprint> fingerprints
     ) {
         ManifestJson manifest = new ManifestJson();
         manifest.setBookId(bookId);
@@ -222,6 +558,7 @@ public class S3UploadService {
         manifest.setAuthor(metadata.getAuthor());
         manifest.setLanguage(metadata.getLanguage());
         manifest.setEpubUrl(epubUrl);
+        manifest.setVoice(metadata.getVoice());
         manifest.setCreatedAt(new Date());
 
         // 페이지 정보 생성
@@ -231,6 +568,7 @@ public class S3UploadService {
             page.setPageNumber(i + 1);
             page.setImageUrl(imageUrls.get(i));
             page.setAudioUrl(i < audioUrls.size() ? audioUrls.get(i) : null);
+            page.setWordTimingUrl(i < wordTimingUrls.size() ? wordTimingUrls.get(i) : null);
 
             // 해당 페이지의 텍스트 추가
             if (i < segments.size()) {
@@ -238,6 +576,11 @@ public class S3UploadService {
                 page.setText(String.join(" ", segment.sentences()));
             }
 
+            if (i < fingerprints.size()) {
+                page.setTextHash(fingerprints.get(i).getTextHash());
+                page.setImageHash(fingerprints.get(i).getImageHash());
+            }
+
             pages.add(page);
         }
 
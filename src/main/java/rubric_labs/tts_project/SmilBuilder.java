@@ -1,7 +1,10 @@
 package rubric_labs.tts_project;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.function.IntFunction;
 
 public class SmilBuilder {
 
@@ -17,40 +20,88 @@ public class SmilBuilder {
 
         for (int i = 0; i < segments.size(); i++) {
             ParagraphSegment seg = segments.get(i);
-            int pageNum = seg.getIndex();
-            String fileName = "page" + pageNum + ".smil";
-            String xhtmlPath = "../text/page" + pageNum + ".xhtml";
-            String audioFile = "../" + audioDir + "/chap1_p" + pageNum + ".mp3";
-
-            String content = buildSinglePageSmil(xhtmlPath, pageNum, audioFile, seg);
-            pageSmils.add(new PageSmil(fileName, content));
+            pageSmils.add(buildPageSmil(seg, i < ttsList.size() ? ttsList.get(i) : null, audioDir));
         }
 
         return pageSmils;
     }
 
+    /**
+     * 중복 제거된 오디오로 페이지별 SMIL 생성 (같은 내용의 페이지는 소유 페이지의 MP3 를 가리킴)
+     */
+    public List<PageSmil> buildPageSmils(
+            List<ParagraphSegment> segments,
+            List<ParagraphTts> ttsList,
+            String audioDir,
+            AssetDedup assets
+    ) {
+        List<PageSmil> pageSmils = new ArrayList<>(segments.size());
+        for (int i = 0; i < segments.size(); i++) {
+            ParagraphSegment seg = segments.get(i);
+            pageSmils.add(buildPageSmil(seg, i < ttsList.size() ? ttsList.get(i) : null, audioDir,
+                    assets.audioFileName(seg.getIndex())));
+        }
+        return pageSmils;
+    }
+
+    /**
+     * 한 페이지 SMIL (스트리밍 패키징용)
+     */
+    public PageSmil buildPageSmil(ParagraphSegment seg, ParagraphTts tts, String audioDir) {
+        return buildPageSmil(seg, tts, audioDir, "chap1_p" + seg.getIndex() + ".mp3");
+    }
+
+    /**
+     * @param audioFileName audioDir 기준 파일명 (중복 제거 시 다른 페이지의 MP3 일 수 있음, 내용이 같으므로 타이밍도 같음)
+     */
+    public PageSmil buildPageSmil(ParagraphSegment seg, ParagraphTts tts, String audioDir, String audioFileName) {
+        int pageNum = seg.getIndex();
+        String fileName = "page" + pageNum + ".smil";
+        String xhtmlPath = "../text/page" + pageNum + ".xhtml";
+        String audioFile = "../" + audioDir + "/" + audioFileName;
+
+        long[] clipBegins = sentenceClipBegins(seg, tts);
+        String content = buildSinglePageSmil(xhtmlPath, pageNum, audioFile, clipBegins);
+        return new PageSmil(fileName, content);
+    }
+
     /**
      * ✅ 개별 페이지 SMIL 생성
+     * - 문장 타이밍이 있으면 문장(#sN)마다 clipBegin/clipEnd 로 페이지 MP3 구간을 지정 (문장 하이라이트)
+     * - 없으면 페이지 전체(#pageN)에 페이지 MP3 전체를 연결
      */
-    private String buildSinglePageSmil(String xhtmlPath, int pageNum, String audioFile, ParagraphSegment segment) {
+    private String buildSinglePageSmil(String xhtmlPath, int pageNum, String audioFile, long[] clipBegins) {
         StringBuilder sb = new StringBuilder();
         sb.append("<smil xmlns=\"http://www.w3.org/ns/SMIL\" xmlns:epub=\"http://www.idpf.org/2007/ops\" version=\"3.0\">");
         sb.append("<body>");
         sb.append("<seq id=\"id").append(pageNum).append("\" epub:textref=\"").append(xhtmlPath).append("\">");
 
-        // 페이지 이미지와 오디오 연결
-        sb.append("<par id=\"p").append(pageNum).append("\">");
-        sb.append("<text src=\"").append(xhtmlPath).append("#page").append(pageNum).append("\"/>");
-        sb.append("<audio src=\"").append(audioFile).append("\"/>");
-        sb.append("</par>");
+        if (clipBegins == null) {
+            // 페이지 이미지와 오디오 연결
+            sb.append("<par id=\"p").append(pageNum).append("\">");
+            sb.append("<text src=\"").append(xhtmlPath).append("#page").append(pageNum).append("\"/>");
+            sb.append("<audio src=\"").append(audioFile).append("\"/>");
+            sb.append("</par>");
+        } else {
+            // 문장별 동기화 - 다음 타이밍이 있는 문장의 시작이 clipEnd, 마지막 문장은 MP3 끝까지
+            for (int i = 0; i < clipBegins.length; i++) {
+                if (clipBegins[i] < 0) {
+                    continue;
+                }
+                int next = i + 1;
+                while (next < clipBegins.length && clipBegins[next] < 0) {
+                    next++;
+                }
 
-        // 문장별 동기화 (선택사항 - 단어별 하이라이트용)
-        if (segment.sentences() != null && !segment.sentences().isEmpty()) {
-            for (int i = 0; i < segment.sentences().size(); i++) {
                 sb.append("<par id=\"s").append(i + 1).append("\">");
                 sb.append("<text src=\"").append(xhtmlPath).append("#s").append(i + 1).append("\"/>");
-                // 실제로는 각 문장별 오디오 타임스탬프 필요
+                sb.append("<audio src=\"").append(audioFile).append("\" clipBegin=\"").append(clockValue(clipBegins[i])).append('"');
+                if (next < clipBegins.length) {
+                    sb.append(" clipEnd=\"").append(clockValue(clipBegins[next])).append('"');
+                }
+                sb.append("/>");
                 sb.append("</par>");
+                i = next - 1;
             }
         }
 
@@ -61,6 +112,58 @@ public class SmilBuilder {
         return sb.toString();
     }
 
+    /**
+     * 문장 i 의 시작 시각(ms), sentence mark 가 없는 문장은 -1 (앞 문장 구간에 포함)
+     * - 페이지 SSML 은 <speak><p><s>문장</s>...</p></speak> 이므로 문장 시작 byte offset 을 누적해서 계산하고,
+     *   offset 순으로 온 sentence mark 와 두 포인터로 맞춤 (문장/mark 수에 선형)
+     * @return 타이밍 정보가 없으면 null
+     */
+    private long[] sentenceClipBegins(ParagraphSegment seg, ParagraphTts tts) {
+        List<String> sentences = seg.sentences();
+        if (tts == null || sentences == null || sentences.isEmpty()) {
+            return null;
+        }
+        SpeechMarkTrack marks = tts.getTrack();
+
+        int[] sentenceStarts = PageSsmlLayout.sentenceByteStarts(sentences);
+
+        long[] clipBegins = new long[sentences.size()];
+        Arrays.fill(clipBegins, -1);
+        boolean found = false;
+
+        int sentence = 0;
+        for (int m = 0; m < marks.size(); m++) {
+            if (marks.type(m) != SpeechMarkTrack.Type.SENTENCE) {
+                continue;
+            }
+            int start = marks.start(m);
+            while (sentence + 1 < sentenceStarts.length && sentenceStarts[sentence + 1] <= start) {
+                sentence++;
+            }
+            if (clipBegins[sentence] < 0) {
+                clipBegins[sentence] = marks.time(m);
+                found = true;
+            }
+        }
+        if (!found) {
+            return null;
+        }
+
+        // 첫 문장은 MP3 처음부터 (앞쪽 무음 포함)
+        for (int i = 0; i < clipBegins.length; i++) {
+            if (clipBegins[i] >= 0) {
+                clipBegins[i] = 0;
+                break;
+            }
+        }
+        return clipBegins;
+    }
+
+    // SMIL clock value (초 단위, ms 정밀도)
+    private static String clockValue(long millis) {
+        return String.format(Locale.ROOT, "%d.%03ds", millis / 1000, millis % 1000);
+    }
+
     /**
      * 기존 메서드 (하위 호환성 유지)
      * @deprecated buildPageSmils() 사용 권장
@@ -70,6 +173,23 @@ public class SmilBuilder {
                                    List<ParagraphSegment> segments,
                                    List<ParagraphTts> ttsList,
                                    String audioDir) {
+        return buildChapterSmil(chapterXhtmlPath, segments, audioDir, pageNum -> "chap1_p" + pageNum + ".mp3");
+    }
+
+    /**
+     * 중복 제거된 오디오로 한 파일 SMIL 생성 (/tts/epub 의 한 챕터 EPUB)
+     */
+    public String buildChapterSmil(String chapterXhtmlPath,
+                                   List<ParagraphSegment> segments,
+                                   String audioDir,
+                                   AssetDedup assets) {
+        return buildChapterSmil(chapterXhtmlPath, segments, audioDir, assets::audioFileName);
+    }
+
+    private String buildChapterSmil(String chapterXhtmlPath,
+                                    List<ParagraphSegment> segments,
+                                    String audioDir,
+                                    IntFunction<String> audioFileNames) {
         StringBuilder sb = new StringBuilder();
         sb.append("<smil xmlns=\"http://www.w3.org/ns/SMIL\" xmlns:epub=\"http://www.idpf.org/2007/ops\" version=\"3.0\">");
         sb.append("<body><seq epub:textref=\"").append(chapterXhtmlPath).append("\">");
@@ -78,7 +198,7 @@ public class SmilBuilder {
         for (int i = 0; i < segments.size(); i++) {
             ParagraphSegment seg = segments.get(i);
             int pageNum = seg.getIndex();
-            String audioFile = audioDir + "/chap1_p" + pageNum + ".mp3";
+            String audioFile = audioDir + "/" + audioFileNames.apply(pageNum);
             String pageId = "page" + pageNum;
 
             sb.append("<par id=\"p").append(pageNum).append("\">");
@@ -0,0 +1,83 @@
+package rubric_labs.tts_project;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Polly SpeechMarks(JSON lines) 스트리밍 파서
+ * - 한 줄씩 String 으로 자르지 않고 Jackson JsonParser 로 토큰 단위로 읽음 (escape 된 값도 그대로 복원)
+ * - word / sentence / ssml 만 남기고 viseme 등 나머지 타입은 건너뜀
+ * - 결과는 열 단위 SpeechMarkTrack 으로 바로 채움
+ */
+public final class SpeechMarkParser {
+
+    // JsonFactory 는 thread-safe 이고 만들 때 비용이 크므로 공유
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private SpeechMarkParser() {
+    }
+
+    public static SpeechMarkTrack parse(byte[] json) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            // 대략 mark 하나에 70 byte
+            return parse(parser, json.length / 70);
+        }
+    }
+
+    public static SpeechMarkTrack parse(InputStream json) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return parse(parser, 0);
+        }
+    }
+
+    private static SpeechMarkTrack parse(JsonParser parser, int expectedSize) throws IOException {
+        SpeechMarkTrack.Builder track = new SpeechMarkTrack.Builder(expectedSize);
+        char[] value = new char[64];
+
+        // JSON lines = 최상위 객체가 공백으로 이어진 스트림
+        JsonToken token;
+        while ((token = parser.nextToken()) != null) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+
+            SpeechMarkTrack.Type type = null;
+            long time = 0;
+            int start = 0;
+            int end = 0;
+            int valueLength = 0;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken valueToken = parser.nextToken();
+                switch (field) {
+                    case "type" -> type = SpeechMarkTrack.Type.of(parser.getText());
+                    case "time" -> time = parser.getValueAsLong();
+                    case "start" -> start = parser.getValueAsInt();
+                    case "end" -> end = parser.getValueAsInt();
+                    case "value" -> {
+                        // 파서 내부 버퍼에서 바로 복사 (mark 마다 String 을 만들지 않음)
+                        valueLength = valueToken == JsonToken.VALUE_NULL ? 0 : parser.getTextLength();
+                        if (valueLength > value.length) {
+                            value = new char[Math.max(valueLength, value.length * 2)];
+                        }
+                        if (valueLength > 0) {
+                            System.arraycopy(parser.getTextCharacters(), parser.getTextOffset(), value, 0, valueLength);
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+
+            if (type != null) {
+                track.add(type, start, end, time, value, 0, valueLength);
+            }
+        }
+        return track.build();
+    }
+}
@@ -0,0 +1,390 @@
+package rubric_labs.tts_project;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SpeechMark 목록의 열(column) 단위 저장
+ * - mark 하나당 객체를 두지 않고 type / start / end / time 을 기본형 배열에, value 는 공유 char 버퍼에 이어서 보관
+ * - 기존 코드용으로 List<SpeechMark> 뷰(asList)를 제공 (get 할 때마다 SpeechMark 를 새로 만듦)
+ * - toBytes / fromBytes: 캐시·S3 저장용 binary 형식 (시각/offset 은 앞 mark 와의 차이를 varint 로 기록)
+ */
+public final class SpeechMarkTrack {
+
+    public static final SpeechMarkTrack EMPTY = new Builder(0).build();
+
+    private static final byte[] MAGIC = {'S', 'M', 'T', 1};
+
+    public enum Type {
+        WORD("word"),
+        SENTENCE("sentence"),
+        SSML("ssml");
+
+        private static final Type[] VALUES = values();
+
+        private final String value;
+
+        Type(String value) {
+            this.value = value;
+        }
+
+        public String value() {
+            return value;
+        }
+
+        /**
+         * @return 지원하지 않는 타입(viseme 등)이면 null
+         */
+        public static Type of(String value) {
+            return switch (value) {
+                case "word" -> WORD;
+                case "sentence" -> SENTENCE;
+                case "ssml" -> SSML;
+                default -> null;
+            };
+        }
+    }
+
+    private final int size;
+    private final byte[] types;
+    private final int[] starts;
+    private final int[] ends;
+    private final long[] times;
+    private final char[] values;
+    private final int[] valueEnds;     // i 번째 value = values[valueEnds[i-1], valueEnds[i])
+
+    private SpeechMarkTrack(int size, byte[] types, int[] starts, int[] ends, long[] times, char[] values, int[] valueEnds) {
+        this.size = size;
+        this.types = types;
+        this.starts = starts;
+        this.ends = ends;
+        this.times = times;
+        this.values = values;
+        this.valueEnds = valueEnds;
+    }
+
+    public static SpeechMarkTrack of(List<SpeechMark> marks) {
+        if (marks instanceof MarkList view) {
+            return view.track();
+        }
+        Builder builder = new Builder(marks.size());
+        for (SpeechMark mark : marks) {
+            Type type = mark.getType() == null ? null : Type.of(mark.getType());
+            if (type != null) {
+                builder.add(type, mark.getStart(), mark.getEnd(), mark.getTime(), mark.getValue());
+            }
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public Type type(int i) {
+        return Type.VALUES[types[i]];
+    }
+
+    public int start(int i) {
+        return starts[i];
+    }
+
+    public int end(int i) {
+        return ends[i];
+    }
+
+    public long time(int i) {
+        return times[i];
+    }
+
+    public String value(int i) {
+        int from = valueFrom(i);
+        return new String(values, from, valueEnds[i] - from);
+    }
+
+    /**
+     * value 를 String 으로 만들지 않고 비교
+     */
+    public boolean valueEquals(int i, String other) {
+        int from = valueFrom(i);
+        int length = valueEnds[i] - from;
+        if (other.length() != length) {
+            return false;
+        }
+        for (int k = 0; k < length; k++) {
+            if (values[from + k] != other.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public SpeechMark get(int i) {
+        return new SpeechMark(type(i).value(), starts[i], ends[i], times[i], value(i));
+    }
+
+    public List<SpeechMark> asList() {
+        return new MarkList(this);
+    }
+
+    private int valueFrom(int i) {
+        return i == 0 ? 0 : valueEnds[i - 1];
+    }
+
+    // ---- binary 직렬화 ----
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + size * 8);
+        out.writeBytes(MAGIC);
+        writeVarint(out, size);
+
+        long prevTime = 0;
+        int prevStart = 0;
+        for (int i = 0; i < size; i++) {
+            out.write(types[i]);
+            writeVarlong(out, zigzag(times[i] - prevTime));
+            writeVarint(out, (int) zigzag(starts[i] - prevStart));
+            writeVarint(out, (int) zigzag(ends[i] - starts[i]));
+            writeVarint(out, valueEnds[i] - valueFrom(i));
+            prevTime = times[i];
+            prevStart = starts[i];
+        }
+
+        byte[] text = new String(values, 0, size == 0 ? 0 : valueEnds[size - 1]).getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, text.length);
+        out.writeBytes(text);
+        return out.toByteArray();
+    }
+
+    public static SpeechMarkTrack fromBytes(byte[] data) {
+        if (data.length < MAGIC.length || !Arrays.equals(data, 0, MAGIC.length, MAGIC, 0, MAGIC.length)) {
+            throw new IllegalArgumentException("SpeechMarkTrack 형식이 아님");
+        }
+        Reader in = new Reader(data, MAGIC.length);
+        int size = in.readVarint();
+
+        byte[] types = new byte[size];
+        int[] starts = new int[size];
+        int[] ends = new int[size];
+        long[] times = new long[size];
+        int[] valueEnds = new int[size];
+
+        long time = 0;
+        int start = 0;
+        int valueEnd = 0;
+        for (int i = 0; i < size; i++) {
+            types[i] = data[in.position++];
+            time += unzigzag(in.readVarlong());
+            start += (int) unzigzag(in.readVarint() & 0xFFFFFFFFL);
+            times[i] = time;
+            starts[i] = start;
+            ends[i] = start + (int) unzigzag(in.readVarint() & 0xFFFFFFFFL);
+            valueEnd += in.readVarint();
+            valueEnds[i] = valueEnd;
+        }
+
+        int textLength = in.readVarint();
+        char[] values = new String(data, in.position, textLength, StandardCharsets.UTF_8).toCharArray();
+        return new SpeechMarkTrack(size, types, starts, ends, times, values, valueEnds);
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int v) {
+        writeVarlong(out, v & 0xFFFFFFFFL);
+    }
+
+    private static void writeVarlong(ByteArrayOutputStream out, long v) {
+        while ((v & ~0x7FL) != 0) {
+            out.write((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        int readVarint() {
+            return (int) readVarlong();
+        }
+
+        long readVarlong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = data[position++];
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("SpeechMarkTrack varint 손상");
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (!(obj instanceof SpeechMarkTrack that)) return false;
+        int textLength = size == 0 ? 0 : valueEnds[size - 1];
+        return size == that.size
+                && Arrays.equals(types, 0, size, that.types, 0, that.size)
+                && Arrays.equals(starts, 0, size, that.starts, 0, that.size)
+                && Arrays.equals(ends, 0, size, that.ends, 0, that.size)
+                && Arrays.equals(times, 0, size, that.times, 0, that.size)
+                && Arrays.equals(valueEnds, 0, size, that.valueEnds, 0, that.size)
+                && Arrays.equals(values, 0, textLength, that.values, 0, textLength);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = size;
+        for (int i = 0; i < size; i++) {
+            result = 31 * result + Long.hashCode(times[i]);
+            result = 31 * result + starts[i];
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "SpeechMarkTrack[size=" + size + "]";
+    }
+
+    /**
+     * SpeechMarkTrack 조립 (배열은 필요할 때 두 배씩 늘림)
+     */
+    public static final class Builder {
+        private int size;
+        private byte[] types;
+        private int[] starts;
+        private int[] ends;
+        private long[] times;
+        private int[] valueEnds;
+        private char[] values;
+        private int valueLength;
+
+        public Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 8);
+            types = new byte[capacity];
+            starts = new int[capacity];
+            ends = new int[capacity];
+            times = new long[capacity];
+            valueEnds = new int[capacity];
+            values = new char[capacity * 8];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public Builder add(Type type, int start, int end, long time, String value) {
+            int length = value == null ? 0 : value.length();
+            ensureValueCapacity(length);
+            if (length > 0) {
+                value.getChars(0, length, values, valueLength);
+            }
+            return append(type, start, end, time, length);
+        }
+
+        /**
+         * char 배열 구간을 value 로 추가 (JsonParser 버퍼에서 바로 복사)
+         */
+        public Builder add(Type type, int start, int end, long time, char[] chars, int offset, int length) {
+            ensureValueCapacity(length);
+            System.arraycopy(chars, offset, values, valueLength, length);
+            return append(type, start, end, time, length);
+        }
+
+        /**
+         * 다른 track 의 i 번째 mark 를 byte offset / 시각만 옮겨 추가
+         */
+        public Builder addShifted(SpeechMarkTrack source, int i, int byteShift, long timeShift) {
+            int from = source.valueFrom(i);
+            return add(source.type(i), source.starts[i] + byteShift, source.ends[i] + byteShift,
+                    source.times[i] + timeShift, source.values, from, source.valueEnds[i] - from);
+        }
+
+        private Builder append(Type type, int start, int end, long time, int valueCharCount) {
+            if (size == types.length) {
+                int capacity = size * 2;
+                types = Arrays.copyOf(types, capacity);
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                times = Arrays.copyOf(times, capacity);
+                valueEnds = Arrays.copyOf(valueEnds, capacity);
+            }
+            types[size] = (byte) type.ordinal();
+            starts[size] = start;
+            ends[size] = end;
+            times[size] = time;
+            valueLength += valueCharCount;
+            valueEnds[size] = valueLength;
+            size++;
+            return this;
+        }
+
+        private void ensureValueCapacity(int extra) {
+            if (valueLength + extra > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, valueLength + extra));
+            }
+        }
+
+        /**
+         * 배열을 실제 크기로 줄여서 track 생성
+         */
+        public SpeechMarkTrack build() {
+            return new SpeechMarkTrack(size,
+                    Arrays.copyOf(types, size),
+                    Arrays.copyOf(starts, size),
+                    Arrays.copyOf(ends, size),
+                    Arrays.copyOf(times, size),
+                    Arrays.copyOf(values, valueLength),
+                    Arrays.copyOf(valueEnds, size));
+        }
+    }
+
+    private static final class MarkList extends AbstractList<SpeechMark> {
+        private final SpeechMarkTrack track;
+
+        MarkList(SpeechMarkTrack track) {
+            this.track = track;
+        }
+
+        SpeechMarkTrack track() {
+            return track;
+        }
+
+        @Override
+        public SpeechMark get(int index) {
+            if (index < 0 || index >= track.size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return track.get(index);
+        }
+
+        @Override
+        public int size() {
+            return track.size;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package rubric_labs.tts_project;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 짧은 페이지 여러 개를 Polly 한 번으로 합성하기 위한 SSML 묶음
+ * - 페이지 경계마다 <mark name="p{index}"/> 를 넣고, 응답의 ssml SpeechMark 시각으로 MP3 를 페이지별로 자름
+ * - 페이지별 SpeechMark 는 잘린 MP3 기준 시각 / 원래 페이지 SSML 기준 byte offset 으로 되돌림
+ */
+public class SsmlBatch {
+
+    private static final String SPEAK_OPEN = "<speak>";
+    private static final String SPEAK_CLOSE = "</speak>";
+    private static final String MARK_PREFIX = "p";
+
+    @Getter
+    private final List<ParagraphSegment> segments;
+    @Getter
+    private final String ssml;
+
+    // 페이지별 (묶음 SSML 에서의 본문 시작 byte) - (원래 SSML 에서의 본문 시작 byte)
+    private final int[] byteShift;
+
+    public SsmlBatch(List<ParagraphSegment> segments) {
+        this.segments = segments;
+        this.byteShift = new int[segments.size()];
+
+        StringBuilder sb = new StringBuilder(SPEAK_OPEN);
+        int bytes = SPEAK_OPEN.length();
+        for (int i = 0; i < segments.size(); i++) {
+            ParagraphSegment segment = segments.get(i);
+            String mark = "<mark name=\"" + MARK_PREFIX + segment.getIndex() + "\"/>";
+            sb.append(mark);
+            bytes += mark.length();
+
+            String pageSsml = segment.getSsml();
+            boolean wrapped = pageSsml.startsWith(SPEAK_OPEN) && pageSsml.endsWith(SPEAK_CLOSE);
+            String body = wrapped
+                    ? pageSsml.substring(SPEAK_OPEN.length(), pageSsml.length() - SPEAK_CLOSE.length())
+                    : pageSsml;
+
+            byteShift[i] = bytes - (wrapped ? SPEAK_OPEN.length() : 0);
+            sb.append(body);
+            bytes += body.getBytes(StandardCharsets.UTF_8).length;
+        }
+        sb.append(SPEAK_CLOSE);
+        this.ssml = sb.toString();
+    }
+
+    /**
+     * 연속된 짧은 페이지를 묶음으로 계획 (페이지 순서 유지)
+     * - shortPageChars 보다 긴 페이지는 단독
+     * - 묶음 SSML 길이는 maxChars 이하
+     */
+    public static List<List<ParagraphSegment>> plan(List<ParagraphSegment> segments, int shortPageChars, int maxChars) {
+        List<List<ParagraphSegment>> batches = new ArrayList<>();
+        List<ParagraphSegment> current = new ArrayList<>();
+        int currentChars = 0;
+
+        for (ParagraphSegment segment : segments) {
+            int chars = segment.getSsml().length();
+            if (chars > shortPageChars) {
+                if (!current.isEmpty()) {
+                    batches.add(current);
+                    current = new ArrayList<>();
+                    currentChars = 0;
+                }
+                batches.add(List.of(segment));
+                continue;
+            }
+
+            if (!current.isEmpty() && currentChars + chars > maxChars) {
+                batches.add(current);
+                current = new ArrayList<>();
+                currentChars = 0;
+            }
+            current.add(segment);
+            currentChars += chars;
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+
+    /**
+     * 묶음 MP3 / SpeechMark → 페이지별 ParagraphTts
+     * @return 페이지 경계 mark 가 모두 있지 않으면 null (호출자가 페이지별 합성으로 대체)
+     */
+    public List<ParagraphTts> split(byte[] mp3, SpeechMarkTrack marks) {
+        long[] boundaries = new long[segments.size()];
+        int found = 0;
+        for (int m = 0; m < marks.size(); m++) {
+            if (marks.type(m) != SpeechMarkTrack.Type.SSML) {
+                continue;
+            }
+            int page = indexOf(marks, m);
+            if (page >= 0) {
+                boundaries[page] = marks.time(m);
+                found++;
+            }
+        }
+        if (found != segments.size()) {
+            return null;
+        }
+
+        List<Mp3Frames.Frame> frames = Mp3Frames.parse(mp3);
+        List<ParagraphTts> result = new ArrayList<>(segments.size());
+
+        for (int i = 0; i < segments.size(); i++) {
+            long from = i == 0 ? 0 : boundaries[i];
+            long to = i + 1 < segments.size() ? boundaries[i + 1] : -1;
+            Mp3Frames.Slice slice = Mp3Frames.slice(mp3, frames, from, to);
+
+            SpeechMarkTrack.Builder pageMarks = new SpeechMarkTrack.Builder(marks.size() / segments.size());
+            for (int m = 0; m < marks.size(); m++) {
+                if (marks.type(m) == SpeechMarkTrack.Type.SSML) {
+                    continue;
+                }
+                long time = marks.time(m);
+                if (time >= from && (to < 0 || time < to)) {
+                    // 프레임 경계 때문에 slice 시작이 mark 보다 살짝 늦을 수 있어 음수는 0 으로
+                    long timeShift = -Math.min(time, slice.getStartMillis());
+                    pageMarks.addShifted(marks, m, -byteShift[i], timeShift);
+                }
+            }
+
+            result.add(new ParagraphTts(segments.get(i).getIndex(), slice.getData(), pageMarks.build()));
+        }
+        return result;
+    }
+
+    private int indexOf(SpeechMarkTrack marks, int m) {
+        for (int i = 0; i < segments.size(); i++) {
+            if (marks.valueEquals(m, MARK_PREFIX + segments.get(i).getIndex())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
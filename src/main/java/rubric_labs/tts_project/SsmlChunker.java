@@ -0,0 +1,214 @@
+package rubric_labs.tts_project;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Polly 요청 한도를 넘는 SSML 을 여러 <speak> 조각으로 나눔
+ * - 자르는 위치 우선순위: </p> 뒤 → </s> 뒤 → 공백 → (그래도 없으면) 태그/엔티티 밖 아무 곳
+ * - 조각 길이가 한도의 절반 이상이 되는 경계를 우선 (짧은 조각이 많아지면 요청 수만 늘어남)
+ * - 조각 경계에서 열려 있던 태그는 앞 조각에서 닫고 다음 조각에서 다시 열어 각 조각이 올바른 SSML 이 되도록 함
+ * - 조각 SpeechMark 의 byte offset 은 byteShift 를 더하면 원래 SSML 기준 offset 이 됨
+ */
+public final class SsmlChunker {
+
+    private static final String SPEAK_OPEN = "<speak>";
+    private static final String SPEAK_CLOSE = "</speak>";
+
+    // 경계에서 다시 여는/닫는 태그 길이 여유분
+    private static final int TAG_MARGIN = 64;
+
+    private static final int LEVEL_PARAGRAPH = 0;
+    private static final int LEVEL_SENTENCE = 1;
+    private static final int LEVEL_WORD = 2;
+    private static final int LEVEL_ANY = 3;
+
+    private SsmlChunker() {
+    }
+
+    @Getter
+    public static final class Chunk {
+        private final String ssml;
+        private final int byteShift;
+
+        Chunk(String ssml, int byteShift) {
+            this.ssml = ssml;
+            this.byteShift = byteShift;
+        }
+    }
+
+    /**
+     * @param maxChars 조각 하나의 최대 SSML 글자 수 (<speak> 포함)
+     */
+    public static List<Chunk> split(String ssml, int maxChars) {
+        if (ssml.length() <= maxChars) {
+            return List.of(new Chunk(ssml, 0));
+        }
+
+        boolean wrapped = ssml.startsWith(SPEAK_OPEN) && ssml.endsWith(SPEAK_CLOSE);
+        String body = wrapped
+                ? ssml.substring(SPEAK_OPEN.length(), ssml.length() - SPEAK_CLOSE.length())
+                : ssml;
+        int budget = Math.max(1, maxChars - SPEAK_OPEN.length() - SPEAK_CLOSE.length() - TAG_MARGIN);
+
+        List<Chunk> chunks = new ArrayList<>();
+        int originBytes = wrapped ? SPEAK_OPEN.length() : 0;   // 원래 SSML 에서 조각 본문 시작 byte
+
+        int start = 0;
+        List<String> startStack = List.of();
+        int startOpenLength = 0;
+        // 마지막으로 만든 조각의 시작 (남은 부분이 닫는 태그뿐이면 그 조각에 붙임)
+        int lastStart = 0;
+        List<String> lastStack = startStack;
+        int lastOriginBytes = originBytes;
+        List<String> stack = startStack;
+        Candidate[] best = new Candidate[LEVEL_ANY + 1];
+
+        int i = 0;
+        while (i < body.length()) {
+            int next = tokenEnd(body, i);
+
+            if (next - start + startOpenLength > budget) {
+                Candidate cut = pick(best, start + budget / 2);
+                if (cut != null) {
+                    chunks.add(chunk(body, start, cut.position, startStack, cut.stack, originBytes));
+                    lastStart = start;
+                    lastStack = startStack;
+                    lastOriginBytes = originBytes;
+                    originBytes += utf8Length(body, start, cut.position);
+                    start = cut.position;
+                    startStack = cut.stack;
+                    startOpenLength = openTags(startStack).length();
+                    stack = cut.stack;
+                    i = cut.position;
+                    best = new Candidate[LEVEL_ANY + 1];
+                    continue;
+                }
+            }
+
+            char c = body.charAt(i);
+            if (c == '<') {
+                String tag = body.substring(i, next);
+                if (tag.startsWith("</")) {
+                    stack = stack.isEmpty() ? stack : stack.subList(0, stack.size() - 1);
+                    if (tag.equals("</p>")) {
+                        best[LEVEL_PARAGRAPH] = new Candidate(next, stack);
+                    } else if (tag.equals("</s>")) {
+                        best[LEVEL_SENTENCE] = new Candidate(next, stack);
+                    }
+                } else if (!tag.endsWith("/>")) {
+                    List<String> pushed = new ArrayList<>(stack);
+                    pushed.add(tag);
+                    stack = List.copyOf(pushed);
+                }
+            } else if (Character.isWhitespace(c)) {
+                best[LEVEL_WORD] = new Candidate(next, stack);
+            }
+
+            if (next < body.length() && !Character.isLowSurrogate(body.charAt(next))) {
+                best[LEVEL_ANY] = new Candidate(next, stack);
+            }
+            i = next;
+        }
+
+        if (!chunks.isEmpty() && !hasText(body, start)) {
+            // 글자 없이 태그만 있는 조각은 빈 Polly 요청이 되므로 앞 조각에 합침 (닫는 태그 길이는 TAG_MARGIN 안)
+            chunks.set(chunks.size() - 1, chunk(body, lastStart, body.length(), lastStack, stack, lastOriginBytes));
+        } else {
+            chunks.add(chunk(body, start, body.length(), startStack, stack, originBytes));
+        }
+        return chunks;
+    }
+
+    /**
+     * from 이후에 태그 밖 공백이 아닌 글자가 있는지
+     */
+    private static boolean hasText(String body, int from) {
+        int i = from;
+        while (i < body.length()) {
+            int next = tokenEnd(body, i);
+            if (body.charAt(i) != '<' && !Character.isWhitespace(body.charAt(i))) {
+                return true;
+            }
+            i = next;
+        }
+        return false;
+    }
+
+    private static final class Candidate {
+        private final int position;
+        private final List<String> stack;
+
+        Candidate(int position, List<String> stack) {
+            this.position = position;
+            this.stack = stack;
+        }
+    }
+
+    /**
+     * 우선순위가 높은 경계부터 고르되, 조각이 너무 짧아지지 않도록 minPosition 이후 경계를 먼저 봄
+     */
+    private static Candidate pick(Candidate[] best, int minPosition) {
+        for (Candidate candidate : best) {
+            if (candidate != null && candidate.position >= minPosition) {
+                return candidate;
+            }
+        }
+        for (Candidate candidate : best) {
+            if (candidate != null) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * i 에서 시작하는 토큰(태그, 엔티티, 글자 하나)의 끝 (exclusive)
+     */
+    private static int tokenEnd(String body, int i) {
+        char c = body.charAt(i);
+        if (c == '<') {
+            int close = body.indexOf('>', i);
+            return close < 0 ? body.length() : close + 1;
+        }
+        if (c == '&') {
+            int semi = body.indexOf(';', i);
+            if (semi > 0 && semi - i <= 10) {
+                return semi + 1;
+            }
+        }
+        return i + 1;
+    }
+
+    private static Chunk chunk(String body, int from, int to, List<String> openStack, List<String> closeStack, int originBytes) {
+        String open = openTags(openStack);
+        String ssml = SPEAK_OPEN + open + body.substring(from, to) + closeTags(closeStack) + SPEAK_CLOSE;
+        int chunkBytes = SPEAK_OPEN.length() + open.getBytes(StandardCharsets.UTF_8).length;
+        return new Chunk(ssml, originBytes - chunkBytes);
+    }
+
+    private static String openTags(List<String> stack) {
+        return String.join("", stack);
+    }
+
+    private static String closeTags(List<String> stack) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = stack.size() - 1; i >= 0; i--) {
+            String tag = stack.get(i);
+            int nameEnd = 1;
+            while (nameEnd < tag.length() && !Character.isWhitespace(tag.charAt(nameEnd))
+                    && tag.charAt(nameEnd) != '>' && tag.charAt(nameEnd) != '/') {
+                nameEnd++;
+            }
+            sb.append("</").append(tag, 1, nameEnd).append('>');
+        }
+        return sb.toString();
+    }
+
+    private static int utf8Length(String s, int from, int to) {
+        return s.substring(from, to).getBytes(StandardCharsets.UTF_8).length;
+    }
+}
@@ -0,0 +1,175 @@
+package rubric_labs.tts_project;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.polly.model.OutputFormat;
+import software.amazon.awssdk.services.polly.model.SpeechMarkType;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Polly 합성 결과 content-addressed 캐시
+ * - key = SHA-256(ssml, voiceId, outputFormat, speechMarkTypes)
+ * - 조회 순서: 메모리 LRU → 로컬 디스크 → (선택) S3, 하위 계층 hit 은 상위 계층으로 승격
+ * - 같은 key 를 동시에 요청하면 Polly 호출은 한 번만 수행
+ */
+@Slf4j
+@Component
+public class SynthesisCache {
+
+    private final MemoryCacheTier memoryTier;
+    private final List<SynthesisCacheTier> tiers = new ArrayList<>();
+    private final Map<String, AtomicLong> hits = new LinkedHashMap<>();
+    private final AtomicLong misses = new AtomicLong();
+    private final ConcurrentHashMap<String, CompletableFuture<byte[]>> loading = new ConcurrentHashMap<>();
+
+    public SynthesisCache(
+            S3Client s3Client,
+            @Value("${app.polly.cache.memory-max-bytes:268435456}") long memoryMaxBytes,
+            @Value("${app.polly.cache.disk-dir:}") String diskDir,
+            @Value("${app.polly.cache.disk-max-bytes:1073741824}") long diskMaxBytes,
+            @Value("${app.polly.cache.s3-enabled:false}") boolean s3Enabled,
+            @Value("${app.polly.cache.s3-prefix:polly-cache/}") String s3Prefix,
+            @Value("${spring.cloud.aws.s3.bucket}") String bucketName
+    ) {
+        this.memoryTier = new MemoryCacheTier(memoryMaxBytes);
+        tiers.add(memoryTier);
+
+        if (!diskDir.isBlank() && diskMaxBytes > 0) {
+            tiers.add(new DiskCacheTier(Path.of(diskDir), diskMaxBytes));
+        }
+        if (s3Enabled) {
+            tiers.add(new S3CacheTier(s3Client, bucketName, s3Prefix));
+        }
+
+        for (SynthesisCacheTier tier : tiers) {
+            hits.put(tier.name(), new AtomicLong());
+        }
+        log.info("Polly 합성 캐시 계층: {}", hits.keySet());
+    }
+
+    /**
+     * Polly 요청 내용으로 캐시 key 생성
+     */
+    public static String keyOf(String ssml, String voiceId, OutputFormat outputFormat, List<SpeechMarkType> speechMarkTypes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // 필드 사이 구분자(\0)로 경계가 섞이지 않도록 함
+            digest.update(voiceId.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(outputFormat.toString().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            for (SpeechMarkType type : speechMarkTypes) {
+                digest.update(type.toString().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) ',');
+            }
+            digest.update((byte) 0);
+            digest.update(ssml.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 캐시에서 조회하고, 없으면 loader(Polly 호출) 결과를 모든 계층에 저장
+     */
+    public byte[] getOrLoad(String key, Supplier<byte[]> loader) {
+        byte[] cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<byte[]> mine = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = loading.putIfAbsent(key, mine);
+        if (existing != null) {
+            // 같은 key 를 이미 다른 스레드가 합성 중
+            return existing.join();
+        }
+
+        try {
+            misses.incrementAndGet();
+            byte[] data = loader.get();
+            for (SynthesisCacheTier tier : tiers) {
+                putQuietly(tier, key, data);
+            }
+            mine.complete(data);
+            return data;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, mine);
+        }
+    }
+
+    private byte[] lookup(String key) {
+        for (int i = 0; i < tiers.size(); i++) {
+            SynthesisCacheTier tier = tiers.get(i);
+            byte[] data = getQuietly(tier, key);
+            if (data != null) {
+                hits.get(tier.name()).incrementAndGet();
+                // 상위 계층으로 승격
+                for (int j = 0; j < i; j++) {
+                    putQuietly(tiers.get(j), key, data);
+                }
+                return data;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 계층 오류는 miss 로 취급 (예상하지 못한 예외도 합성을 막지 않도록)
+     */
+    private byte[] getQuietly(SynthesisCacheTier tier, String key) {
+        try {
+            return tier.get(key);
+        } catch (RuntimeException e) {
+            log.warn("합성 캐시 조회 실패: tier={}, key={}, 에러={}", tier.name(), key, e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * 계층 저장 실패는 무시 (이미 받은 Polly 결과를 버리지 않음)
+     */
+    private void putQuietly(SynthesisCacheTier tier, String key, byte[] data) {
+        try {
+            tier.put(key, data);
+        } catch (RuntimeException e) {
+            log.warn("합성 캐시 저장 실패: tier={}, key={}, 에러={}", tier.name(), key, e.toString());
+        }
+    }
+
+    public CacheStats getStats() {
+        Map<String, Long> hitCounts = new LinkedHashMap<>();
+        hits.forEach((tier, count) -> hitCounts.put(tier, count.get()));
+        return new CacheStats(hitCounts, misses.get(), memoryTier.getEntryCount(), memoryTier.getCurrentBytes());
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class CacheStats {
+        private Map<String, Long> hits;      // 계층별 hit 수
+        private long misses;                 // Polly 호출 수
+        private int memoryEntries;
+        private long memoryBytes;
+    }
+}
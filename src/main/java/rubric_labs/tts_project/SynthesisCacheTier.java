@@ -0,0 +1,15 @@
+package rubric_labs.tts_project;
+
+/**
+ * Polly 합성 결과 캐시 계층 (메모리 / 로컬 디스크 / S3)
+ * - key 는 요청 내용의 SHA-256 해시
+ * - get 은 없으면 null 반환, 계층 내부 오류는 miss 로 취급
+ */
+public interface SynthesisCacheTier {
+
+    String name();
+
+    byte[] get(String key);
+
+    void put(String key, byte[] data);
+}
@@ -0,0 +1,252 @@
+package rubric_labs.tts_project;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 페이지 단위 Polly 합성을 가상 스레드로 병렬 실행
+ * - 동시에 진행되는 페이지 합성 수는 app.polly.max-in-flight 로 제한 (전체 요청 공용, PollyInFlightLimit)
+ * - 결과는 항상 페이지 순서대로 반환
+ * - 한 페이지라도 실패하면 남은 작업을 취소(실행 중인 Polly 호출은 인터럽트)하고 책 전체를 실패 처리
+ * - app.polly.batch.enabled 이면 연속된 짧은 페이지를 Polly 한 번으로 묶어 합성 (SsmlBatch)
+ */
+@Slf4j
+@Component
+public class SynthesisExecutor {
+
+    private final PollyService pollyService;
+    private final PipelineMetrics metrics;
+    private final PollyInFlightLimit inFlight;
+    private final int streamWindow;
+    private final boolean batchEnabled;
+    private final int batchShortPageChars;
+    private final int batchMaxChars;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public SynthesisExecutor(PollyService pollyService,
+                             PipelineMetrics metrics,
+                             PollyInFlightLimit inFlight,
+                             @Value("${app.polly.stream-window:16}") int streamWindow,
+                             @Value("${app.polly.batch.enabled:true}") boolean batchEnabled,
+                             @Value("${app.polly.batch.short-page-chars:400}") int batchShortPageChars,
+                             @Value("${app.polly.batch.max-chars:2800}") int batchMaxChars) {
+        this.pollyService = pollyService;
+        this.metrics = metrics;
+        this.inFlight = inFlight;
+        this.streamWindow = streamWindow;
+        this.batchEnabled = batchEnabled;
+        this.batchShortPageChars = batchShortPageChars;
+        this.batchMaxChars = batchMaxChars;
+    }
+
+    public List<ParagraphTts> synthesizeAll(List<ParagraphSegment> segments, String voiceId) {
+        return synthesizeAll(segments, voiceId, ConversionProgressListener.NONE);
+    }
+
+    public List<ParagraphTts> synthesizeAll(List<ParagraphSegment> segments, String voiceId,
+                                            ConversionProgressListener listener) {
+        AtomicBoolean aborted = new AtomicBoolean(false);
+        AtomicInteger completed = new AtomicInteger();
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+        List<CompletableFuture<List<ParagraphTts>>> batchFutures = new ArrayList<>();
+        List<CompletableFuture<ParagraphTts>> futures = new ArrayList<>(segments.size());
+
+        for (List<ParagraphSegment> batch : planBatches(segments)) {
+            CompletableFuture<List<ParagraphTts>> batchFuture = submit(
+                    metrics.propagate(() -> synthesizeBounded(batch, voiceId, aborted)));
+
+            batchFuture.whenComplete((ttsList, ex) -> {
+                if (ex != null) {
+                    aborted.set(true);
+                    firstFailure.completeExceptionally(ex);
+                } else {
+                    int done = completed.addAndGet(batch.size());
+                    log.info("페이지 {}/{} 처리 완료", done, segments.size());
+                    listener.onPageSynthesized(done, segments.size());
+                }
+            });
+            batchFutures.add(batchFuture);
+            futures.addAll(pagesOf(batchFuture, batch.size()));
+        }
+
+        try {
+            // 모든 페이지 완료 또는 첫 실패 중 먼저 오는 쪽까지 대기
+            CompletableFuture.anyOf(
+                    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])),
+                    firstFailure
+            ).join();
+        } catch (CompletionException | CancellationException e) {
+            batchFutures.forEach(f -> f.cancel(true));
+            Throwable cause = unwrap(e);
+            log.error("책 음성 합성 실패: {}", cause.getMessage());
+            throw new RuntimeException("책 음성 합성 실패: " + cause.getMessage(), cause);
+        }
+
+        return futures.stream()
+                .map(CompletableFuture::join)
+                .toList();
+    }
+
+    /**
+     * 페이지 순서대로 결과를 하나씩 꺼내는 스트림
+     * - 최대 app.polly.stream-window 페이지만 미리 합성 → 메모리에 남는 MP3 수가 책 길이와 무관
+     * - 사용 후 반드시 close (남은 합성 취소)
+     */
+    public SynthesisStream stream(List<ParagraphSegment> segments, String voiceId) {
+        return new SynthesisStream(segments, voiceId);
+    }
+
+    /**
+     * 합성 단위 계획 - 묶음 합성이 꺼져 있으면 페이지 하나씩
+     */
+    private List<List<ParagraphSegment>> planBatches(List<ParagraphSegment> segments) {
+        if (!batchEnabled) {
+            return segments.stream().map(List::of).toList();
+        }
+        List<List<ParagraphSegment>> batches = SsmlBatch.plan(segments, batchShortPageChars, batchMaxChars);
+        if (batches.size() < segments.size()) {
+            log.info("Polly 묶음 합성: {} 페이지 → {} 요청", segments.size(), batches.size());
+        }
+        return batches;
+    }
+
+    /**
+     * 묶음 결과에서 페이지별 future 를 꺼냄 (페이지 순서 유지)
+     */
+    private List<CompletableFuture<ParagraphTts>> pagesOf(CompletableFuture<List<ParagraphTts>> batchFuture, int size) {
+        List<CompletableFuture<ParagraphTts>> pages = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int index = i;
+            pages.add(batchFuture.thenApply(ttsList -> ttsList.get(index)));
+        }
+        return pages;
+    }
+
+    private List<ParagraphTts> synthesizeBounded(List<ParagraphSegment> batch, String voiceId, AtomicBoolean aborted) {
+        int firstPage = batch.get(0).getIndex();
+        inFlight.acquire("페이지 " + firstPage);
+
+        try {
+            // 다른 페이지가 이미 실패했다면 Polly 호출 없이 종료
+            if (aborted.get()) {
+                throw new CancellationException("다른 페이지 실패로 페이지 " + firstPage + " 합성 취소");
+            }
+            List<ParagraphTts> ttsList = pollyService.synthesizeBatch(batch, voiceId);
+            metrics.countPages("synthesize", batch.size());
+            return ttsList;
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    /**
+     * 가상 스레드에서 실행하고, 반환된 future 를 cancel 하면 실행 중인 작업도 인터럽트
+     * (CompletableFuture.supplyAsync 는 cancel(true) 해도 이미 실행 중인 스레드를 인터럽트하지 않음)
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> running = executor.submit(() -> {
+            try {
+                result.complete(task.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((value, ex) -> {
+            if (result.isCancelled()) {
+                running.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private Throwable unwrap(Throwable e) {
+        Throwable cause = e;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public class SynthesisStream implements Iterator<ParagraphTts>, AutoCloseable {
+
+        private final List<List<ParagraphSegment>> batches;
+        private final String voiceId;
+        private final AtomicBoolean aborted = new AtomicBoolean(false);
+        private final Deque<CompletableFuture<ParagraphTts>> window = new ArrayDeque<>();
+        private final List<CompletableFuture<List<ParagraphTts>>> pending = new ArrayList<>();
+        private int nextToSubmit;
+
+        private SynthesisStream(List<ParagraphSegment> segments, String voiceId) {
+            this.batches = planBatches(segments);
+            this.voiceId = voiceId;
+            fillWindow();
+        }
+
+        // 창 크기는 페이지 기준, 제출은 묶음 단위
+        private void fillWindow() {
+            while (window.size() < streamWindow && nextToSubmit < batches.size()) {
+                List<ParagraphSegment> batch = batches.get(nextToSubmit++);
+                CompletableFuture<List<ParagraphTts>> batchFuture = submit(
+                        metrics.propagate(() -> synthesizeBounded(batch, voiceId, aborted)));
+                pending.removeIf(CompletableFuture::isDone);
+                pending.add(batchFuture);
+                window.addAll(pagesOf(batchFuture, batch.size()));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !window.isEmpty();
+        }
+
+        @Override
+        public ParagraphTts next() {
+            CompletableFuture<ParagraphTts> head = window.pollFirst();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            fillWindow();
+
+            try {
+                return head.join();
+            } catch (CompletionException | CancellationException e) {
+                close();
+                Throwable cause = unwrap(e);
+                log.error("책 음성 합성 실패: {}", cause.getMessage());
+                throw new RuntimeException("책 음성 합성 실패: " + cause.getMessage(), cause);
+            }
+        }
+
+        @Override
+        public void close() {
+            aborted.set(true);
+            pending.forEach(f -> f.cancel(true));
+            pending.clear();
+            window.clear();
+        }
+    }
+}
@@ -6,13 +6,17 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.Base64;
 import java.util.List;
 
@@ -24,74 +28,103 @@ public class TteApi {
     private final PollyService pollyService;
     private final PdfReader pdfReader;
     private final PdfMetadataExtractor metadataExtractor;
-    private final S3UploadService s3UploadService;
+    private final EpubConversionService conversionService;
+    private final SynthesisExecutor synthesisExecutor;
+    private final SynthesisCache synthesisCache;
+    private final PipelineMetrics metrics;
 
     @PostMapping(value = "", consumes = {MediaType.MULTIPART_FORM_DATA_VALUE})
     public ResponseEntity<byte[]> readPdf(@RequestPart("file") MultipartFile file) {
-        String ssml = pdfReader.getSsmlFromPdfFile(file);
-        byte[] mp3 = pollyService.synthesize(ssml);
+        try (PipelineMetrics.Scope scope = metrics.openScope("/tts")) {
+            String ssml;
+            try (PdfDocumentSession session = openSession(file)) {
+                ssml = pdfReader.getSsmlFromPdfFile(session);
+            }
+            byte[] mp3 = pollyService.synthesize(ssml);
 
-        // 파일명을 원본 PDF 이름 기반으로 생성
-        String originalName = file.getOriginalFilename();
-        String outputName = (originalName != null ?
-                originalName.replaceAll("\\.[^.]*$", "") : "output") + ".mp3";
+            // 파일명을 원본 PDF 이름 기반으로 생성
+            String originalName = file.getOriginalFilename();
+            String outputName = (originalName != null ?
+                    originalName.replaceAll("\\.[^.]*$", "") : "output") + ".mp3";
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .header("Content-Disposition", "attachment; filename=\"" + outputName + "\"")
-                .body(mp3);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .header("Content-Disposition", "attachment; filename=\"" + outputName + "\"")
+                    .body(mp3);
+        }
     }
 
     @PostMapping(value = "/epub", consumes = {MediaType.MULTIPART_FORM_DATA_VALUE})
     public ResponseEntity<byte[]> makeEpub(@RequestPart("file") MultipartFile file) {
-        // 1) PDF에서 메타데이터 자동 추출
-        BookMetadata metadata = metadataExtractor.extractMetadata(file);
+        try (PipelineMetrics.Scope scope = metrics.openScope("/tts/epub")) {
+            BookMetadata metadata;
+            List<ParagraphSegment> segments;
+            List<PageImage> pageImages;
 
-        // 2) 문단/문장 추출
-        List<ParagraphSegment> segments = pdfReader.extractParagraphs(file);
+            // PDF 는 요청당 한 번만 파싱
+            try (PdfDocumentSession session = openSession(file)) {
+                // 1) PDF에서 메타데이터 자동 추출
+                metadata = metadataExtractor.extractMetadata(session);
 
-        // 텍스트 + 오디오 외에 이미지 추출
-        List<byte[]> pageImages = pdfReader.extractPageImages(file);
-        int imageCount = pageImages != null ? pageImages.size() : 0;
+                // 2) 문단/문장 추출
+                segments = pdfReader.extractParagraphs(session);
 
-        // 3) 메타데이터의 음성으로 문단별 Polly 호출
-        List<ParagraphTts> ttsList = new ArrayList<>();
-        for (ParagraphSegment seg : segments) {
-            ttsList.add(pollyService.synthesizeParagraph(seg, metadata.getVoice()));
-        }
+                // 텍스트 + 오디오 외에 이미지 추출
+                pageImages = pdfReader.extractPageImages(session);
+            }
 
-        // 4) XHTML / SMIL / OPF / container.xml 생성 (메타데이터 활용)
-        XhtmlBuilder xhtmlBuilder = new XhtmlBuilder();
-        String xhtml = xhtmlBuilder.buildChapterXhtml(metadata.getTitle(), segments, imageCount);
+            // 3) 메타데이터의 음성으로 문단별 Polly 호출 (병렬)
+            List<ParagraphTts> ttsList = synthesisExecutor.synthesizeAll(segments, metadata.getVoice());
 
-        SmilBuilder smilBuilder = new SmilBuilder();
-        String smil = smilBuilder.buildChapterSmil("text/chap1.xhtml", segments, ttsList, "audio");
+            // 내용이 같은 이미지 / 오디오는 처음 나온 페이지의 파일 하나만 EPUB 에 넣고 나머지 페이지는 그 파일을 참조
+            AssetDedup assets = AssetDedup.of(pageImages, ttsList);
+            assets.record(metrics);
 
-        OpfBuilder opfBuilder = new OpfBuilder();
-        String opf = opfBuilder.buildOpf(
-                metadata.getBookId(),
-                metadata.getTitle(),
-                metadata.getAuthor(),
-                metadata.getLanguage(),
-                segments.size(),
-                imageCount
-        );
-        String containerXml = opfBuilder.buildContainerXml();
+            // 4) XHTML / SMIL / OPF / container.xml 생성 (메타데이터 활용)
+            XhtmlBuilder xhtmlBuilder = new XhtmlBuilder();
+            String xhtml = metrics.time("xhtml_build",
+                    () -> xhtmlBuilder.buildChapterXhtml(metadata.getTitle(), segments, assets));
+
+            SmilBuilder smilBuilder = new SmilBuilder();
+            String smil = metrics.time("smil_build",
+                    () -> smilBuilder.buildChapterSmil("text/chap1.xhtml", segments, "audio", assets));
 
-        // 5) EPUB 패키징
-        EpubPackager packager = new EpubPackager();
-        NavBuilder navBuilder = new NavBuilder();
-        String nav = navBuilder.buildNav(metadata.getTitle(), imageCount);
+            OpfBuilder opfBuilder = new OpfBuilder();
+            String opf = metrics.time("opf_build", () -> opfBuilder.buildOpf(
+                    metadata.getBookId(),
+                    metadata.getTitle(),
+                    metadata.getAuthor(),
+                    metadata.getLanguage(),
+                    segments.size(),
+                    assets
+            ));
+            String containerXml = opfBuilder.buildContainerXml();
 
-        byte[] epubBytes = packager.buildEpub(xhtml, smil, opf, containerXml, nav, ttsList, pageImages);
+            // 5) EPUB 패키징
+            EpubPackager packager = new EpubPackager();
+            NavBuilder navBuilder = new NavBuilder();
+            String nav = navBuilder.buildNav(metadata.getTitle(), assets);
 
-        // 출력 파일명을 책 제목 기반으로 생성
-        String epubFilename = sanitizeFilename(metadata.getTitle()) + ".epub";
+            byte[] epubBytes = metrics.time("zip_package",
+                    () -> packager.buildEpub(xhtml, smil, opf, containerXml, nav, ttsList, pageImages, assets));
+            metrics.recordBytes("zip_package", epubBytes.length);
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType("application/epub+zip"))
-                .header("Content-Disposition", "attachment; filename=\"" + epubFilename + "\"")
-                .body(epubBytes);
+            // 출력 파일명을 책 제목 기반으로 생성
+            String epubFilename = sanitizeFilename(metadata.getTitle()) + ".epub";
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("application/epub+zip"))
+                    .header("Content-Disposition", "attachment; filename=\"" + epubFilename + "\"")
+                    .body(epubBytes);
+        }
+    }
+
+    private PdfDocumentSession openSession(MultipartFile file) {
+        try (PipelineMetrics.StageTimer timer = metrics.start("pdf_load")) {
+            PdfDocumentSession session = PdfDocumentSession.open(file);
+            timer.bytes(file.getSize()).pages(session.getPageCount()).success();
+            return session;
+        }
     }
 
     private String sanitizeFilename(String filename) {
@@ -102,185 +135,75 @@ public class TteApi {
     }
 
     @PostMapping(value = "/epub/v2", consumes = {MediaType.MULTIPART_FORM_DATA_VALUE})
-    public ResponseEntity<byte[]> makeEpubV2(@RequestPart("file") MultipartFile file) {
-        // 1. 메타데이터 추출
-        BookMetadata metadata = metadataExtractor.extractMetadata(file);
-
-        // 2. 페이지별 이미지 추출
-        List<byte[]> pageImages = pdfReader.extractPageImages(file);
-
-        // 3. 페이지별 텍스트 추출
-        List<String> pageTexts = pdfReader.extractTextByPage(file);
-
-        // 4. 페이지별 음성 생성
-        List<ParagraphTts> ttsList = new ArrayList<>();
-        List<ParagraphSegment> segments = new ArrayList<>();
-
-        for (int i = 0; i < pageImages.size(); i++) {
-            int pageNumber = i + 1;
-
-            // 텍스트를 SSML로 변환
-            String pageText = i < pageTexts.size() ? pageTexts.get(i) : "";
-            String ssml = pdfReader.convertToSSML(pageText, metadata);
-
-            // 문장 분리 (SMIL 생성용)
-            List<String> sentences = pdfReader.splitSentences(
-                    pdfReader.sanitize(pageText, metadata.getLanguage()),
-                    metadata.getLanguage()
-            );
-
-            // ParagraphSegment 생성
-            ParagraphSegment segment = new ParagraphSegment(pageNumber, sentences, ssml);
-            segments.add(segment);
-
-            // 음성 합성
-            ParagraphTts tts = pollyService.synthesizeParagraph(segment, metadata.getVoice());
-            ttsList.add(tts);
-
-            log.info("페이지 {}/{} 처리 완료", pageNumber, pageImages.size());
+    public ResponseEntity<StreamingResponseBody> makeEpubV2(@RequestPart("file") MultipartFile file) {
+        // 세션은 스트리밍이 끝날 때 닫음 (응답 본문은 요청 스레드 반환 후 작성됨)
+        PdfDocumentSession session;
+        try (PipelineMetrics.Scope scope = metrics.openScope("/tts/epub/v2")) {
+            session = openSession(file);
+        }
+        String epubFilename;
+        try {
+            BookMetadata metadata = metadataExtractor.extractMetadata(session);
+            epubFilename = sanitizeFilename(metadata.getTitle()) + "_v2.epub";
+        } catch (RuntimeException e) {
+            session.close();
+            throw e;
         }
 
-        // 5. XHTML / SMIL / OPF 생성
-        XhtmlBuilder xhtmlBuilder = new XhtmlBuilder();
-        String xhtml = xhtmlBuilder.buildChapterXhtml(metadata.getTitle(), segments, pageImages.size());
-
-        SmilBuilder smilBuilder = new SmilBuilder();
-        String smil = smilBuilder.buildChapterSmil("text/chap1.xhtml", segments, ttsList, "audio");
-
-        OpfBuilder opfBuilder = new OpfBuilder();
-        String opf = opfBuilder.buildOpf(
-                metadata.getBookId(),
-                metadata.getTitle(),
-                metadata.getAuthor(),
-                metadata.getLanguage(),
-                segments.size(),
-                pageImages.size()
-        );
-        String containerXml = opfBuilder.buildContainerXml();
-
-        // 6. EPUB 패키징
-        EpubPackager packager = new EpubPackager();
-        NavBuilder navBuilder = new NavBuilder();
-        String nav = navBuilder.buildNav(metadata.getTitle(), pageImages.size());
-
-        byte[] epubBytes = packager.buildEpub(xhtml, smil, opf, containerXml, nav, ttsList, pageImages);
-
-        // 출력 파일명 생성
-        String epubFilename = sanitizeFilename(metadata.getTitle()) + "_v2.epub";
+        // 페이지가 합성되는 대로 ZIP 엔트리를 응답 스트림에 바로 기록
+        StreamingResponseBody body = out -> {
+            try (session; PipelineMetrics.Scope scope = metrics.openScope("/tts/epub/v2")) {
+                conversionService.writeEpub(session, out);
+            } catch (IOException | RuntimeException e) {
+                log.error("EPUB V2 스트리밍 실패: {}", epubFilename, e);
+                throw e;
+            }
+        };
 
         return ResponseEntity.ok()
                 .contentType(MediaType.parseMediaType("application/epub+zip"))
                 .header("Content-Disposition", "attachment; filename=\"" + epubFilename + "\"")
-                .body(epubBytes);
+                .body(body);
     }
 
-    // TteApi.java의 makeEpubV2WithS3 메서드를 다음과 같이 수정
-
     @PostMapping(value = "/epub/v2/s3", consumes = {MediaType.MULTIPART_FORM_DATA_VALUE})
     public ResponseEntity<ManifestResponse> makeEpubV2WithS3(@RequestPart("file") MultipartFile file) {
-        try {
-            // 1. 메타데이터 추출
-            BookMetadata metadata = metadataExtractor.extractMetadata(file);
-            String bookId = metadata.getBookId();
-
-            // 2. 페이지별 이미지 추출
-            List<byte[]> pageImages = pdfReader.extractPageImages(file);
-
-            // 3. 페이지별 텍스트 추출
-            List<String> pageTexts = pdfReader.extractTextByPage(file);
-
-            // 4. 페이지별 음성 생성
-            List<ParagraphTts> ttsList = new ArrayList<>();
-            List<ParagraphSegment> segments = new ArrayList<>();
-
-            for (int i = 0; i < pageImages.size(); i++) {
-                int pageNumber = i + 1;
-
-                // 텍스트를 SSML로 변환
-                String pageText = i < pageTexts.size() ? pageTexts.get(i) : "";
-                String ssml = pdfReader.convertToSSML(pageText, metadata);
-
-                // 문장 분리 (SMIL 생성용)
-                List<String> sentences = pdfReader.splitSentences(
-                        pdfReader.sanitize(pageText, metadata.getLanguage()),
-                        metadata.getLanguage()
-                );
+        try (PipelineMetrics.Scope scope = metrics.openScope("/tts/epub/v2/s3");
+             PdfDocumentSession session = openSession(file)) {
+            ManifestResponse response = conversionService.convertToS3(session, ConversionProgressListener.NONE);
+            return ResponseEntity.ok(response);
 
-                // ParagraphSegment 생성
-                ParagraphSegment segment = new ParagraphSegment(pageNumber, sentences, ssml);
-                segments.add(segment);
-
-                // 음성 합성
-                ParagraphTts tts = pollyService.synthesizeParagraph(segment, metadata.getVoice());
-                ttsList.add(tts);
-
-                log.info("페이지 {}/{} 처리 완료", pageNumber, pageImages.size());
-            }
-
-            // 5. ✅ 페이지별 XHTML 생성
-            XhtmlBuilder xhtmlBuilder = new XhtmlBuilder();
-            List<XhtmlBuilder.PageXhtml> pageXhtmls = xhtmlBuilder.buildPageXhtmls(
-                    metadata.getTitle(),
-                    segments,
-                    pageImages.size()
-            );
-
-            // 6. ✅ 페이지별 SMIL 생성
-            SmilBuilder smilBuilder = new SmilBuilder();
-            List<SmilBuilder.PageSmil> pageSmils = smilBuilder.buildPageSmils(
-                    segments,
-                    ttsList,
-                    "audio"
-            );
-
-            // 7. ✅ OPF 생성 (페이지별 spine)
-            OpfBuilder opfBuilder = new OpfBuilder();
-            String opf = opfBuilder.buildOpf(
-                    metadata.getBookId(),
-                    metadata.getTitle(),
-                    metadata.getAuthor(),
-                    metadata.getLanguage(),
-                    segments.size(),
-                    pageImages.size()
-            );
-            String containerXml = opfBuilder.buildContainerXml();
-
-            // 8. Nav 생성
-            NavBuilder navBuilder = new NavBuilder();
-            String nav = navBuilder.buildNav(metadata.getTitle(), pageImages.size());
-
-            // 9. ✅ EPUB 패키징 (페이지별 파일들)
-            EpubPackager packager = new EpubPackager();
-            byte[] epubBytes = packager.buildEpubWithPages(
-                    pageXhtmls,   // 페이지별 XHTML 리스트
-                    pageSmils,    // 페이지별 SMIL 리스트
-                    opf,
-                    containerXml,
-                    nav,
-                    ttsList,
-                    pageImages
-            );
-
-            // 10. S3에 업로드 (bookId 기반 경로)
-            String manifestUrl = s3UploadService.uploadEpubWithResources(
-                    bookId,
-                    metadata,
-                    epubBytes,
-                    ttsList,
-                    pageImages,
-                    segments
-            );
+        } catch (Exception e) {
+            log.error("EPUB V2 S3 업로드 실패", e);
+            return ResponseEntity.status(500).body(null);
+        }
+    }
 
-            // 11. manifest.json URL 반환
-            log.info("✅ EPUB V2 생성 완료: {}", manifestUrl);
-            return ResponseEntity.ok(new ManifestResponse(manifestUrl, bookId));
+    /**
+     * 기존 책(bookId)의 개정판 PDF 반영 - 바뀐 페이지만 재합성/재업로드
+     */
+    @PutMapping(value = "/epub/v2/s3/{bookId}", consumes = {MediaType.MULTIPART_FORM_DATA_VALUE})
+    public ResponseEntity<ManifestResponse> updateEpubV2WithS3(@PathVariable String bookId,
+                                                               @RequestPart("file") MultipartFile file) {
+        try (PipelineMetrics.Scope scope = metrics.openScope("/tts/epub/v2/s3/{bookId}");
+             PdfDocumentSession session = openSession(file)) {
+            ManifestResponse response = conversionService.updateOnS3(bookId, session, ConversionProgressListener.NONE);
+            return ResponseEntity.ok(response);
 
         } catch (Exception e) {
-            log.error("EPUB V2 S3 업로드 실패", e);
+            log.error("EPUB V2 개정판 반영 실패: {}", bookId, e);
             return ResponseEntity.status(500).body(null);
         }
     }
 
+    /**
+     * Polly 합성 캐시 hit/miss 현황
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<SynthesisCache.CacheStats> getCacheStats() {
+        return ResponseEntity.ok(synthesisCache.getStats());
+    }
+
     // Response DTO
     @Data
     @AllArgsConstructor
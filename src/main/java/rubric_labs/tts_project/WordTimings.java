@@ -0,0 +1,90 @@
+package rubric_labs.tts_project;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 페이지 단어 타이밍 트랙 (웹 리더 단어 하이라이트용, ManifestPage.wordTimingUrl)
+ * - JSON lines, 1행은 헤더 {"version":1,"count":N}
+ * - 이후 단어마다 [앞 단어와의 시각 차이(ms), 앞 단어와의 시작 위치 차이, 길이]
+ * - 위치/길이는 ManifestPage.text (문장을 공백 하나로 이은 문자열)의 글자(UTF-16) 단위
+ */
+final class WordTimings {
+
+    static final String CONTENT_TYPE = "application/x-ndjson";
+
+    private WordTimings() {
+    }
+
+    /**
+     * @return word mark 가 없으면 null
+     */
+    static byte[] build(ParagraphSegment segment, ParagraphTts tts) {
+        List<String> sentences = segment.sentences();
+        if (tts == null || sentences == null || sentences.isEmpty()) {
+            return null;
+        }
+        SpeechMarkTrack marks = tts.getTrack();
+
+        int[] sentenceBytes = PageSsmlLayout.sentenceByteStarts(sentences);
+        StringBuilder lines = new StringBuilder();
+        int count = 0;
+
+        // 커서: 현재 문장, 문장 안 글자 위치 / byte 위치, 문장의 text 시작 위치 (mark 는 offset 순이므로 앞으로만 이동)
+        int sentence = 0;
+        int charPos = 0;
+        int bytePos = 0;
+        int textStart = 0;
+        long prevTime = 0;
+        int prevOffset = 0;
+
+        for (int m = 0; m < marks.size(); m++) {
+            if (marks.type(m) != SpeechMarkTrack.Type.WORD) {
+                continue;
+            }
+            int start = marks.start(m);
+            while (sentence + 1 < sentenceBytes.length && sentenceBytes[sentence + 1] <= start) {
+                textStart += sentences.get(sentence).length() + 1;
+                sentence++;
+                charPos = 0;
+                bytePos = 0;
+            }
+
+            String text = sentences.get(sentence);
+            int relative = start - sentenceBytes[sentence];
+            if (relative < bytePos) {
+                // 순서가 어긋난 mark 는 문장 처음부터 다시 셈
+                charPos = 0;
+                bytePos = 0;
+            }
+            while (bytePos < relative && charPos < text.length()) {
+                bytePos += PageSsmlLayout.utf8Length(text, charPos);
+                charPos += Character.isHighSurrogate(text.charAt(charPos)) ? 2 : 1;
+            }
+
+            // 단어 길이 (byte → 글자)
+            int wordBytes = marks.end(m) - start;
+            int wordEnd = charPos;
+            for (int b = 0; b < wordBytes && wordEnd < text.length(); ) {
+                b += PageSsmlLayout.utf8Length(text, wordEnd);
+                wordEnd += Character.isHighSurrogate(text.charAt(wordEnd)) ? 2 : 1;
+            }
+
+            int offset = textStart + charPos;
+            long time = marks.time(m);
+            lines.append('[').append(time - prevTime)
+                    .append(',').append(offset - prevOffset)
+                    .append(',').append(wordEnd - charPos)
+                    .append("]\n");
+            prevTime = time;
+            prevOffset = offset;
+            count++;
+        }
+
+        if (count == 0) {
+            return null;
+        }
+        String header = "{\"version\":1,\"count\":" + count + "}\n";
+        return (header + lines).getBytes(StandardCharsets.UTF_8);
+    }
+}
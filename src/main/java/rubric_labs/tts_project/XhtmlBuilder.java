@@ -9,22 +9,48 @@ public class XhtmlBuilder {
      * ✅ 페이지별로 개별 XHTML 파일 생성
      * @return List<PageXhtml> - 각 페이지의 파일명과 내용
      */
-    public List<PageXhtml> buildPageXhtmls(String title, List<ParagraphSegment> segments, int imageCount) {
+    public List<PageXhtml> buildPageXhtmls(String title, List<ParagraphSegment> segments,
+                                           List<PageImage.Format> imageFormats) {
         List<PageXhtml> pages = new ArrayList<>();
 
-        for (int i = 1; i <= imageCount; i++) {
-            String fileName = "page" + i + ".xhtml";
-            String content = buildSinglePageXhtml(title, i, segments.size() >= i ? segments.get(i - 1) : null);
-            pages.add(new PageXhtml(fileName, content));
+        for (int i = 1; i <= imageFormats.size(); i++) {
+            pages.add(buildPageXhtml(title, i, segments.size() >= i ? segments.get(i - 1) : null, imageFormats.get(i - 1)));
         }
 
         return pages;
     }
 
+    /**
+     * 중복 제거된 이미지로 페이지별 XHTML 생성 (같은 내용의 페이지는 소유 페이지의 이미지 파일을 가리킴)
+     */
+    public List<PageXhtml> buildPageXhtmls(String title, List<ParagraphSegment> segments, AssetDedup assets) {
+        List<String> imageFileNames = assets.imageFileNames();
+        List<PageXhtml> pages = new ArrayList<>(imageFileNames.size());
+        for (int i = 1; i <= imageFileNames.size(); i++) {
+            pages.add(buildPageXhtml(title, i, segments.size() >= i ? segments.get(i - 1) : null, imageFileNames.get(i - 1)));
+        }
+        return pages;
+    }
+
+    /**
+     * 한 페이지 XHTML (스트리밍 패키징용)
+     */
+    public PageXhtml buildPageXhtml(String title, int pageNumber, ParagraphSegment segment, PageImage.Format imageFormat) {
+        return buildPageXhtml(title, pageNumber, segment, imageFormat.epubFileName(pageNumber));
+    }
+
+    /**
+     * @param imageFileName OEBPS/images/ 기준 파일명 (중복 제거 시 다른 페이지의 파일일 수 있음)
+     */
+    public PageXhtml buildPageXhtml(String title, int pageNumber, ParagraphSegment segment, String imageFileName) {
+        String fileName = "page" + pageNumber + ".xhtml";
+        return new PageXhtml(fileName, buildSinglePageXhtml(title, pageNumber, segment, imageFileName));
+    }
+
     /**
      * ✅ 개별 페이지 XHTML 생성
      */
-    private String buildSinglePageXhtml(String title, int pageNumber, ParagraphSegment segment) {
+    private String buildSinglePageXhtml(String title, int pageNumber, ParagraphSegment segment, String imageFileName) {
         StringBuilder sb = new StringBuilder();
         sb.append("""
                 <?xml version="1.0" encoding="UTF-8"?>
@@ -70,7 +96,7 @@ public class XhtmlBuilder {
                     <div class="page-container">
                       <div class="page-image" id="page""").append(pageNumber).append("""
                 " epub:type="bodymatter">
-                        <img src="../images/page-""").append(pageNumber).append(".png\" alt=\"Page ").append(pageNumber).append("""
+                        <img src="../images/""").append(imageFileName).append("\" alt=\"Page ").append(pageNumber).append("""
                 "/>
                       </div>
                 """);
@@ -100,7 +126,22 @@ public class XhtmlBuilder {
      * @deprecated 페이지별 XHTML 생성을 위해 buildPageXhtmls() 사용 권장
      */
     @Deprecated
-    public String buildChapterXhtml(String title, List<ParagraphSegment> segments, int imageCount) {
+    public String buildChapterXhtml(String title, List<ParagraphSegment> segments, List<PageImage.Format> imageFormats) {
+        List<String> imageFileNames = new ArrayList<>(imageFormats.size());
+        for (int i = 1; i <= imageFormats.size(); i++) {
+            imageFileNames.add(imageFormats.get(i - 1).epubFileName(i));
+        }
+        return buildChapterXhtmlWithImages(title, imageFileNames);
+    }
+
+    /**
+     * 중복 제거된 이미지로 한 파일 XHTML 생성 (/tts/epub 의 한 챕터 EPUB)
+     */
+    public String buildChapterXhtml(String title, List<ParagraphSegment> segments, AssetDedup assets) {
+        return buildChapterXhtmlWithImages(title, assets.imageFileNames());
+    }
+
+    private String buildChapterXhtmlWithImages(String title, List<String> imageFileNames) {
         // 모든 페이지를 하나의 파일에 넣는 구식 방법
         StringBuilder sb = new StringBuilder();
         sb.append("""
@@ -126,9 +167,10 @@ public class XhtmlBuilder {
                   <body>
                 """);
 
-        for (int i = 1; i <= imageCount; i++) {
+        for (int i = 1; i <= imageFileNames.size(); i++) {
             sb.append("<div class=\"page-image\" id=\"page").append(i).append("\" epub:type=\"bodymatter\">\n")
-                    .append("  <img src=\"../images/page-").append(i).append(".png\" alt=\"Page ").append(i).append("\"/>\n")
+                    .append("  <img src=\"../images/").append(imageFileNames.get(i - 1))
+                    .append("\" alt=\"Page ").append(i).append("\"/>\n")
                     .append("</div>\n");
         }
 
@@ -0,0 +1,44 @@
+package rubric_labs.tts_project;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * EPUB 엔트리를 ZIP 으로 OutputStream 에 바로 기록
+ * - mimetype 엔트리는 EPUB 규칙에 따라 STORED (무압축)
+ * - finish() 는 central directory 만 기록하고 하위 스트림은 닫지 않음
+ */
+public class ZipEntrySink implements EpubEntrySink {
+
+    private final ZipOutputStream zos;
+
+    public ZipEntrySink(OutputStream out) {
+        this.zos = new ZipOutputStream(out, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void put(String path, byte[] data) throws IOException {
+        ZipEntry entry = new ZipEntry(path);
+        if ("mimetype".equals(path)) {
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(data.length);
+            entry.setCompressedSize(data.length);
+            CRC32 crc = new CRC32();
+            crc.update(data);
+            entry.setCrc(crc.getValue());
+        }
+        zos.putNextEntry(entry);
+        zos.write(data);
+        zos.closeEntry();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        zos.finish();
+        zos.flush();
+    }
+}
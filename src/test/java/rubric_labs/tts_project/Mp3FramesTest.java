@@ -0,0 +1,161 @@
+package rubric_labs.tts_project;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class Mp3FramesTest {
+
+    // MPEG-1 Layer III, 128kbps, 44.1kHz: 417 byte (padding 이면 418), 1152 샘플 = 26122μs
+    private static final int FRAME_BYTES = 417;
+    private static final long FRAME_MICROS = 26_122;
+
+    @Test
+    void parseSkipsId3TagAndXingFrame() {
+        byte[] mp3 = concat(id3v2(20), xingFrame(), frames(5, true));
+
+        List<Mp3Frames.Frame> frames = Mp3Frames.parse(mp3);
+
+        assertEquals(5, frames.size());
+        int offset = 10 + 20 + FRAME_BYTES;
+        for (int i = 0; i < frames.size(); i++) {
+            Mp3Frames.Frame frame = frames.get(i);
+            int length = i % 2 == 1 ? FRAME_BYTES + 1 : FRAME_BYTES;
+            assertEquals(offset, frame.getOffset());
+            assertEquals(length, frame.getLength());
+            assertEquals(i * FRAME_MICROS, frame.getStartMicros());
+            offset += length;
+        }
+        assertEquals(mp3.length, offset);
+        assertEquals(5 * FRAME_MICROS / 1000, Mp3Frames.durationMillis(mp3));
+    }
+
+    @Test
+    void consecutiveSlicesCoverEveryFrameExactlyOnce() {
+        byte[] mp3 = frames(10, true);
+        List<Mp3Frames.Frame> frames = Mp3Frames.parse(mp3);
+
+        // 경계가 프레임 시작과 같은 ms(78ms = 3번 프레임 78.366ms) 이거나 프레임 중간(160ms) 인 경우
+        long[] boundaries = {0, 78, 160, -1};
+        ByteArrayOutputStream joined = new ByteArrayOutputStream();
+        int frameCount = 0;
+        for (int i = 0; i + 1 < boundaries.length; i++) {
+            Mp3Frames.Slice slice = Mp3Frames.slice(mp3, frames, boundaries[i], boundaries[i + 1]);
+            int sliceFrames = Mp3Frames.parse(slice.getData()).size();
+            assertEquals(frames.get(frameCount).getStartMicros() / 1000, slice.getStartMillis());
+            frameCount += sliceFrames;
+            joined.writeBytes(slice.getData());
+        }
+
+        assertEquals(frames.size(), frameCount);
+        assertArrayEquals(mp3, joined.toByteArray());
+    }
+
+    @Test
+    void sliceStartsAtFirstFrameAtOrAfterFrom() {
+        byte[] mp3 = frames(4, false);
+        List<Mp3Frames.Frame> frames = Mp3Frames.parse(mp3);
+
+        // [26, 52) 에는 1번 프레임(26.122ms)만 시작
+        Mp3Frames.Slice slice = Mp3Frames.slice(mp3, frames, 26, 52);
+        assertEquals(26, slice.getStartMillis());
+        assertArrayEquals(Arrays.copyOfRange(mp3, FRAME_BYTES, 2 * FRAME_BYTES), slice.getData());
+    }
+
+    @Test
+    void sliceWithoutFrameStartInRangeKeepsOneFrame() {
+        byte[] mp3 = frames(4, false);
+        List<Mp3Frames.Frame> frames = Mp3Frames.parse(mp3);
+
+        // [30, 40) 에서 시작하는 프레임이 없으면 그 뒤 첫 프레임(52.244ms) 하나
+        Mp3Frames.Slice inGap = Mp3Frames.slice(mp3, frames, 30, 40);
+        assertEquals(52, inGap.getStartMillis());
+        assertEquals(FRAME_BYTES, inGap.getData().length);
+
+        // 끝을 지난 구간은 마지막 프레임 하나
+        Mp3Frames.Slice pastEnd = Mp3Frames.slice(mp3, frames, 10_000, -1);
+        assertArrayEquals(Arrays.copyOfRange(mp3, 3 * FRAME_BYTES, 4 * FRAME_BYTES), pastEnd.getData());
+    }
+
+    @Test
+    void joinStripsHeadersAndRecordsPartOffsets() {
+        byte[] first = concat(id3v2(32), xingFrame(), frames(3, false));
+        byte[] second = frames(2, true);
+        byte[] empty = new byte[0];
+
+        Mp3Frames.Joined joined = Mp3Frames.join(List.of(first, second, empty));
+
+        byte[] audio = concat(frames(3, false), second);
+        assertArrayEquals(audio, joined.getData());
+        assertArrayEquals(new long[]{0, 3 * FRAME_BYTES, 3 * FRAME_BYTES + 2 * FRAME_BYTES + 1}, joined.getStartBytes());
+        assertArrayEquals(new long[]{3 * FRAME_MICROS / 1000, 5 * FRAME_MICROS / 1000},
+                Arrays.copyOfRange(joined.getStartMillis(), 1, 3));
+        assertEquals(5, Mp3Frames.parse(joined.getData()).size());
+    }
+
+    @Test
+    void joinAccumulatesMicrosecondsNotRoundedMillis() {
+        List<byte[]> parts = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            parts.add(frames(1, false));
+        }
+
+        Mp3Frames.Joined joined = Mp3Frames.join(parts);
+
+        // 조각마다 ms 로 내림해 더하면 260ms, μs 로 누적하면 261ms
+        assertEquals(10 * FRAME_MICROS / 1000, joined.getDurationMillis());
+        assertEquals(9 * FRAME_MICROS / 1000, joined.getStartMillis()[9]);
+        assertEquals(9L * FRAME_BYTES, joined.getStartBytes()[9]);
+    }
+
+    /**
+     * @param alternatePadding true 면 홀수 번째 프레임에 padding byte 추가
+     */
+    static byte[] frames(int count, boolean alternatePadding) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < count; i++) {
+            boolean padding = alternatePadding && i % 2 == 1;
+            byte[] frame = new byte[padding ? FRAME_BYTES + 1 : FRAME_BYTES];
+            frame[0] = (byte) 0xFF;
+            frame[1] = (byte) 0xFB;
+            frame[2] = (byte) (padding ? 0x92 : 0x90);
+            // 본문은 프레임마다 다르게 (잘못 자르면 비교가 실패하도록)
+            Arrays.fill(frame, 4, frame.length, (byte) (i + 1));
+            out.writeBytes(frame);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] xingFrame() {
+        byte[] frame = frames(1, false);
+        Arrays.fill(frame, 4, frame.length, (byte) 0);
+        byte[] tag = "Xing".getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(tag, 0, frame, 36, tag.length);
+        return frame;
+    }
+
+    private static byte[] id3v2(int size) {
+        byte[] tag = new byte[10 + size];
+        tag[0] = 'I';
+        tag[1] = 'D';
+        tag[2] = '3';
+        tag[3] = 4;
+        tag[9] = (byte) size;   // syncsafe, 128 미만
+        return tag;
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+}
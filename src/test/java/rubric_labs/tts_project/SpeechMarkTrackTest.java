@@ -0,0 +1,95 @@
+package rubric_labs.tts_project;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpeechMarkTrackTest {
+
+    @Test
+    void roundTripKeepsNonAsciiEmptyAndNullValues() {
+        SpeechMarkTrack track = new SpeechMarkTrack.Builder(0)
+                .add(SpeechMarkTrack.Type.SENTENCE, 13, 40, 0, "안녕하세요, 세상.")
+                .add(SpeechMarkTrack.Type.WORD, 13, 28, 6, "안녕하세요")
+                .add(SpeechMarkTrack.Type.WORD, 30, 30, 512, "")
+                .add(SpeechMarkTrack.Type.WORD, 30, 34, 700, "👋🏽")
+                .add(SpeechMarkTrack.Type.SSML, 0, 0, 1_000, null)
+                .add(SpeechMarkTrack.Type.WORD, 41, 45, 1_200, "café")
+                .build();
+
+        SpeechMarkTrack restored = SpeechMarkTrack.fromBytes(track.toBytes());
+
+        assertEquals(track, restored);
+        assertEquals(6, restored.size());
+        assertEquals("안녕하세요, 세상.", restored.value(0));
+        assertEquals("안녕하세요", restored.value(1));
+        assertEquals("", restored.value(2));
+        assertEquals("👋🏽", restored.value(3));
+        // null value 는 빈 문자열로 저장됨
+        assertEquals("", restored.value(4));
+        assertEquals(SpeechMarkTrack.Type.SSML, restored.type(4));
+        assertEquals("café", restored.value(5));
+        assertEquals(41, restored.start(5));
+        assertEquals(45, restored.end(5));
+        assertEquals(1_200, restored.time(5));
+    }
+
+    @Test
+    void roundTripKeepsOutOfOrderOffsetsAndLargeTimes() {
+        // 조각 합성 / 묶음 분할 후에는 시각·offset 이 앞 mark 보다 작아질 수 있음 (zigzag 차이값)
+        SpeechMarkTrack track = new SpeechMarkTrack.Builder(0)
+                .add(SpeechMarkTrack.Type.WORD, 5_000, 5_010, 3_600_000_000L, "late")
+                .add(SpeechMarkTrack.Type.WORD, 12, 20, 5, "early")
+                .add(SpeechMarkTrack.Type.WORD, Integer.MAX_VALUE - 1, Integer.MAX_VALUE, 0, "edge")
+                .add(SpeechMarkTrack.Type.WORD, 0, 0, 0, "zero")
+                .build();
+
+        SpeechMarkTrack restored = SpeechMarkTrack.fromBytes(track.toBytes());
+
+        assertEquals(track, restored);
+        for (int i = 0; i < track.size(); i++) {
+            assertEquals(track.type(i), restored.type(i));
+            assertEquals(track.start(i), restored.start(i));
+            assertEquals(track.end(i), restored.end(i));
+            assertEquals(track.time(i), restored.time(i));
+            assertEquals(track.value(i), restored.value(i));
+        }
+    }
+
+    @Test
+    void emptyTrackRoundTrips() {
+        SpeechMarkTrack restored = SpeechMarkTrack.fromBytes(SpeechMarkTrack.EMPTY.toBytes());
+
+        assertTrue(restored.isEmpty());
+        assertEquals(SpeechMarkTrack.EMPTY, restored);
+    }
+
+    @Test
+    void listViewRoundTripSkipsUnsupportedTypes() {
+        List<SpeechMark> marks = List.of(
+                new SpeechMark("sentence", 13, 30, 0, "그 새는 날 수 있다."),
+                new SpeechMark("viseme", 0, 0, 10, "p"),
+                new SpeechMark("word", 13, 16, 25, "그"));
+
+        SpeechMarkTrack track = SpeechMarkTrack.of(marks);
+        List<SpeechMark> view = SpeechMarkTrack.fromBytes(track.toBytes()).asList();
+
+        assertEquals(2, view.size());
+        assertEquals("sentence", view.get(0).getType());
+        assertEquals("그 새는 날 수 있다.", view.get(0).getValue());
+        assertEquals("word", view.get(1).getType());
+        assertEquals(25, view.get(1).getTime());
+    }
+
+    @Test
+    void rejectsForeignBytes() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SpeechMarkTrack.fromBytes("{\"time\":0}".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(IllegalArgumentException.class, () -> SpeechMarkTrack.fromBytes(new byte[0]));
+    }
+}
@@ -0,0 +1,100 @@
+package rubric_labs.tts_project;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SsmlBatchTest {
+
+    private static final ParagraphSegment FIRST = page(3, "첫 장면.");
+    private static final ParagraphSegment SECOND = page(4, "둘째 페이지 입니다.");
+
+    @Test
+    void batchSsmlMarksEveryPage() {
+        SsmlBatch batch = new SsmlBatch(List.of(FIRST, SECOND));
+
+        assertEquals("<speak><mark name=\"p3\"/><p><s>첫 장면.</s></p>"
+                + "<mark name=\"p4\"/><p><s>둘째 페이지 입니다.</s></p></speak>", batch.getSsml());
+    }
+
+    @Test
+    void splitRestoresPageOffsetsAndTimes() {
+        SsmlBatch batch = new SsmlBatch(List.of(FIRST, SECOND));
+        String ssml = batch.getSsml();
+        // 30 프레임 = 783.66ms, 두 번째 페이지 경계 500ms → 그 뒤 첫 프레임(20번, 522.44ms)부터 잘림
+        byte[] mp3 = Mp3FramesTest.frames(30, false);
+        SpeechMarkTrack marks = new SpeechMarkTrack.Builder(8)
+                .add(SpeechMarkTrack.Type.SSML, byteOf(ssml, "<mark name=\"p3\""), byteOf(ssml, "<p>"), 0, "p3")
+                .add(SpeechMarkTrack.Type.SENTENCE, byteOf(ssml, "첫"), byteOf(ssml, "</s>"), 0, "첫 장면.")
+                .add(SpeechMarkTrack.Type.WORD, byteOf(ssml, "첫"), byteOf(ssml, " 장면"), 10, "첫")
+                .add(SpeechMarkTrack.Type.WORD, byteOf(ssml, "장면"), byteOf(ssml, ".</s>"), 200, "장면")
+                .add(SpeechMarkTrack.Type.SSML, byteOf(ssml, "<mark name=\"p4\""), byteOf(ssml, "<p><s>둘째"), 500, "p4")
+                .add(SpeechMarkTrack.Type.WORD, byteOf(ssml, "둘째"), byteOf(ssml, " 페이지"), 520, "둘째")
+                .add(SpeechMarkTrack.Type.WORD, byteOf(ssml, "페이지"), byteOf(ssml, " 입니다"), 800, "페이지")
+                .build();
+
+        List<ParagraphTts> pages = batch.split(mp3, marks);
+
+        assertEquals(2, pages.size());
+        ParagraphTts first = pages.get(0);
+        ParagraphTts second = pages.get(1);
+        assertEquals(3, first.getParagraphIndex());
+        assertEquals(4, second.getParagraphIndex());
+
+        // 프레임 경계에서 나뉘어 빠지거나 겹치는 프레임 없음
+        assertEquals(20, Mp3Frames.parse(first.getMp3()).size());
+        assertEquals(10, Mp3Frames.parse(second.getMp3()).size());
+        ByteArrayOutputStream joined = new ByteArrayOutputStream();
+        joined.writeBytes(first.getMp3());
+        joined.writeBytes(second.getMp3());
+        assertArrayEquals(mp3, joined.toByteArray());
+
+        // 페이지 경계 mark 는 빠지고, offset 은 각 페이지 SSML 기준
+        SpeechMarkTrack firstMarks = first.getTrack();
+        assertEquals(3, firstMarks.size());
+        assertEquals(SpeechMarkTrack.Type.SENTENCE, firstMarks.type(0));
+        assertEquals(byteOf(FIRST.getSsml(), "첫"), firstMarks.start(0));
+        assertEquals(byteOf(FIRST.getSsml(), "</s>"), firstMarks.end(0));
+        assertEquals(byteOf(FIRST.getSsml(), "장면"), firstMarks.start(2));
+        assertEquals(byteOf(FIRST.getSsml(), ".</s>"), firstMarks.end(2));
+        assertEquals(200, firstMarks.time(2));
+
+        SpeechMarkTrack secondMarks = second.getTrack();
+        assertEquals(2, secondMarks.size());
+        assertEquals("둘째", secondMarks.value(0));
+        assertEquals(byteOf(SECOND.getSsml(), "둘째"), secondMarks.start(0));
+        assertEquals(byteOf(SECOND.getSsml(), " 페이지"), secondMarks.end(0));
+        assertEquals(byteOf(SECOND.getSsml(), "페이지"), secondMarks.start(1));
+        // 시각은 잘린 MP3 기준 (slice 시작 522ms 보다 이른 mark 는 0)
+        assertEquals(0, secondMarks.time(0));
+        assertEquals(800 - 522, secondMarks.time(1));
+    }
+
+    @Test
+    void splitWithoutEveryPageMarkReturnsNull() {
+        SsmlBatch batch = new SsmlBatch(List.of(FIRST, SECOND));
+        SpeechMarkTrack marks = new SpeechMarkTrack.Builder(2)
+                .add(SpeechMarkTrack.Type.SSML, 7, 24, 0, "p3")
+                .add(SpeechMarkTrack.Type.WORD, 37, 40, 10, "첫")
+                .build();
+
+        assertNull(batch.split(Mp3FramesTest.frames(10, false), marks));
+    }
+
+    private static ParagraphSegment page(int index, String sentence) {
+        return new ParagraphSegment(index, List.of(sentence), "<speak><p><s>" + sentence + "</s></p></speak>");
+    }
+
+    /**
+     * Polly SpeechMark 처럼 target 이 처음 나오는 위치의 UTF-8 byte offset
+     */
+    private static int byteOf(String ssml, String target) {
+        return ssml.substring(0, ssml.indexOf(target)).getBytes(StandardCharsets.UTF_8).length;
+    }
+}
@@ -0,0 +1,188 @@
+package rubric_labs.tts_project;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SsmlChunkerTest {
+
+    @Test
+    void ssmlWithinLimitIsOneChunk() {
+        String ssml = "<speak><p><s>짧은 문장.</s></p></speak>";
+
+        List<SsmlChunker.Chunk> chunks = SsmlChunker.split(ssml, ssml.length());
+
+        assertEquals(1, chunks.size());
+        assertEquals(ssml, chunks.get(0).getSsml());
+        assertEquals(0, chunks.get(0).getByteShift());
+    }
+
+    @Test
+    void cutInsideSentenceClosesAndReopensTags() {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 1; i <= 30; i++) {
+            sentence.append(i > 1 ? " " : "").append("word").append(i);
+        }
+        String ssml = "<speak><prosody rate=\"90%\"><p><s>" + sentence + "</s></p></prosody></speak>";
+
+        List<SsmlChunker.Chunk> chunks = SsmlChunker.split(ssml, 150);
+
+        assertTrue(chunks.size() > 1);
+        for (int i = 0; i < chunks.size(); i++) {
+            String chunk = chunks.get(i).getSsml();
+            assertTrue(chunk.length() <= 150, chunk);
+            assertBalanced(chunk);
+            // 닫는 태그만 남은 빈 조각을 따로 요청하지 않음
+            assertTrue(!words(chunk).isEmpty(), chunk);
+            // </p>, </s> 경계가 없으므로 문장 안 공백에서 자르고 열린 태그를 닫았다가 다시 엶
+            if (i > 0) {
+                assertTrue(chunk.startsWith("<speak><prosody rate=\"90%\"><p><s>word"), chunk);
+            }
+            if (i + 1 < chunks.size()) {
+                assertTrue(chunk.endsWith(" </s></p></prosody></speak>"), chunk);
+            }
+        }
+        assertEquals(words(ssml), rebasedWords(chunks));
+    }
+
+    @Test
+    void prefersParagraphBoundaryOverSentenceBoundary() {
+        String first = "<p><s>첫 문단의 첫 문장은 경계 우선순위를 보려고 조금 길게 씁니다.</s>"
+                + "<s>첫 문단의 둘째 문장도 마찬가지로 길게 이어 씁니다.</s></p>";
+        String second = "<p><s>둘째 문단의 첫 문장은 다음 조각의 맨 앞에 와야 합니다.</s>"
+                + "<s>둘째 문단의 둘째 문장으로 끝납니다.</s></p>";
+        String ssml = "<speak>" + first + second + "</speak>";
+
+        List<SsmlChunker.Chunk> chunks = SsmlChunker.split(ssml, ssml.length() - 1);
+
+        // 둘째 문단 안의 공백에서 자르면 더 길게 담을 수 있어도 </p> 에서 자름
+        assertEquals(2, chunks.size());
+        assertEquals("<speak>" + first + "</speak>", chunks.get(0).getSsml());
+        assertEquals("<speak>" + second + "</speak>", chunks.get(1).getSsml());
+        assertEquals(words(ssml), rebasedWords(chunks));
+    }
+
+    @Test
+    void koreanTextExactlyAtLimitIsNotSplit() {
+        StringBuilder body = new StringBuilder("<p>");
+        while (body.length() < 230) {
+            body.append("<s>한국어 문장입니다.</s>");
+        }
+        body.append("</p>");
+        String ssml = "<speak>" + body + "</speak>";
+        int limit = ssml.length();
+
+        assertEquals(1, SsmlChunker.split(ssml, limit).size());
+
+        // 한 글자라도 넘으면 나누고, 조각마다 글자 수(byte 수 아님) 한도를 지킴
+        List<SsmlChunker.Chunk> chunks = SsmlChunker.split(ssml, limit - 1);
+        assertTrue(chunks.size() > 1);
+        for (SsmlChunker.Chunk chunk : chunks) {
+            assertTrue(chunk.getSsml().length() <= limit - 1, chunk.getSsml());
+            assertTrue(chunk.getSsml().endsWith("</s></p></speak>"), chunk.getSsml());
+            assertBalanced(chunk.getSsml());
+        }
+        assertEquals(words(ssml), rebasedWords(chunks));
+    }
+
+    @Test
+    void mergedMarkOffsetsPointIntoOriginalSsml() {
+        // 조각마다 Polly 가 돌려준 byte offset + byteShift = 원래 SSML 의 byte offset
+        StringBuilder ssml = new StringBuilder("<speak><prosody volume=\"loud\">");
+        for (int p = 1; p <= 6; p++) {
+            ssml.append("<p><s>").append(p).append("번째 문단 😀 R&amp;D 시작.</s>")
+                    .append("<break time=\"300ms\"/>")
+                    .append("<s>café 와 한글이 섞인 문장 ").append(p).append(".</s></p>");
+        }
+        ssml.append("</prosody></speak>");
+        String original = ssml.toString();
+
+        List<SsmlChunker.Chunk> chunks = SsmlChunker.split(original, 200);
+
+        assertTrue(chunks.size() > 2);
+        List<Word> expected = words(original);
+        List<Word> rebased = rebasedWords(chunks);
+        assertEquals(expected, rebased);
+        byte[] originalBytes = original.getBytes(StandardCharsets.UTF_8);
+        for (Word word : rebased) {
+            byte[] text = word.text().getBytes(StandardCharsets.UTF_8);
+            assertEquals(word.text(), new String(originalBytes, word.start(), text.length, StandardCharsets.UTF_8));
+        }
+    }
+
+    private record Word(String text, int start) {
+    }
+
+    /**
+     * 조각별 단어 byte offset 에 byteShift 를 더해 이어 붙인 목록 (PollyService.synthesizeChunks 의 mark 합치기와 같은 계산)
+     */
+    private static List<Word> rebasedWords(List<SsmlChunker.Chunk> chunks) {
+        List<Word> result = new ArrayList<>();
+        for (SsmlChunker.Chunk chunk : chunks) {
+            for (Word word : words(chunk.getSsml())) {
+                result.add(new Word(word.text(), word.start() + chunk.getByteShift()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 태그 밖 공백으로 나눈 단어와 UTF-8 byte offset (Polly word mark 의 start 와 같은 기준)
+     */
+    private static List<Word> words(String ssml) {
+        List<Word> words = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int currentStart = 0;
+        int bytes = 0;
+        for (int i = 0; i < ssml.length(); i++) {
+            char c = ssml.charAt(i);
+            if (c == '<' || Character.isWhitespace(c)) {
+                if (current.length() > 0) {
+                    words.add(new Word(current.toString(), currentStart));
+                    current.setLength(0);
+                }
+                if (c == '<') {
+                    int close = ssml.indexOf('>', i);
+                    bytes += close + 1 - i;
+                    i = close;
+                    continue;
+                }
+            } else if (current.length() == 0) {
+                currentStart = bytes;
+            }
+            if (!Character.isWhitespace(c)) {
+                current.append(c);
+            }
+            if (Character.isHighSurrogate(c)) {
+                current.append(ssml.charAt(++i));
+                bytes += 4;
+            } else {
+                bytes += c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+            }
+        }
+        return words;
+    }
+
+    private static void assertBalanced(String ssml) {
+        Deque<String> open = new ArrayDeque<>();
+        int i = ssml.indexOf('<');
+        while (i >= 0) {
+            int close = ssml.indexOf('>', i);
+            String tag = ssml.substring(i + 1, close);
+            if (tag.startsWith("/")) {
+                assertEquals(open.pop(), tag.substring(1), ssml);
+            } else if (!tag.endsWith("/")) {
+                open.push(tag.split("[\\s>]")[0]);
+            }
+            i = ssml.indexOf('<', close);
+        }
+        assertTrue(open.isEmpty(), ssml);
+    }
+}
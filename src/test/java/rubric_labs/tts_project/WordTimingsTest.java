@@ -0,0 +1,89 @@
+package rubric_labs.tts_project;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class WordTimingsTest {
+
+    private static final List<String> SENTENCES = List.of("안녕 세상.", "Hello 😀 world.");
+    private static final String SSML = "<speak><p><s>안녕 세상.</s><s>Hello 😀 world.</s></p></speak>";
+    private static final ParagraphSegment SEGMENT = new ParagraphSegment(1, SENTENCES, SSML);
+
+    @Test
+    void wordOffsetsAreCharsIntoJoinedSentences() {
+        SpeechMarkTrack marks = new SpeechMarkTrack.Builder(8)
+                .add(SpeechMarkTrack.Type.SENTENCE, byteOf("안녕"), byteOf("</s>"), 0, "안녕 세상.")
+                .add(SpeechMarkTrack.Type.WORD, byteOf("안녕"), byteOf(" 세상"), 0, "안녕")
+                .add(SpeechMarkTrack.Type.WORD, byteOf("세상"), byteOf(".</s><s>"), 300, "세상")
+                .add(SpeechMarkTrack.Type.SENTENCE, byteOf("Hello"), byteOf(".</s></p>"), 900, "Hello 😀 world.")
+                .add(SpeechMarkTrack.Type.WORD, byteOf("Hello"), byteOf(" 😀"), 900, "Hello")
+                .add(SpeechMarkTrack.Type.WORD, byteOf("😀"), byteOf(" world"), 1_200, "😀")
+                .add(SpeechMarkTrack.Type.WORD, byteOf("world"), byteOf(".</s></p>"), 1_500, "world")
+                .build();
+
+        String json = build(marks);
+
+        // text = "안녕 세상. Hello 😀 world." (이모지는 서로게이트 쌍이라 2글자)
+        assertEquals("""
+                {"version":1,"count":5}
+                [0,0,2]
+                [300,3,2]
+                [600,4,5]
+                [300,6,2]
+                [300,3,5]
+                """, json);
+        assertEquals(List.of("안녕", "세상", "Hello", "😀", "world"), words(json));
+    }
+
+    @Test
+    void outOfOrderMarkIsResolvedFromSentenceStart() {
+        SpeechMarkTrack marks = new SpeechMarkTrack.Builder(2)
+                .add(SpeechMarkTrack.Type.WORD, byteOf("world"), byteOf(".</s></p>"), 100, "world")
+                .add(SpeechMarkTrack.Type.WORD, byteOf("😀"), byteOf(" world"), 200, "😀")
+                .build();
+
+        assertEquals(List.of("world", "😀"), words(build(marks)));
+    }
+
+    @Test
+    void withoutWordMarksReturnsNull() {
+        SpeechMarkTrack marks = new SpeechMarkTrack.Builder(1)
+                .add(SpeechMarkTrack.Type.SENTENCE, byteOf("안녕"), byteOf("</s>"), 0, "안녕 세상.")
+                .build();
+
+        assertNull(WordTimings.build(SEGMENT, new ParagraphTts(1, new byte[0], marks)));
+        assertNull(WordTimings.build(SEGMENT, null));
+    }
+
+    private static String build(SpeechMarkTrack marks) {
+        return new String(WordTimings.build(SEGMENT, new ParagraphTts(1, new byte[0], marks)), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 차이값을 누적해 ManifestPage.text 에서 단어를 다시 잘라냄
+     */
+    private static List<String> words(String json) {
+        String text = String.join(" ", SENTENCES);
+        String[] lines = json.split("\n");
+        String[] result = new String[lines.length - 1];
+        int offset = 0;
+        for (int i = 1; i < lines.length; i++) {
+            String[] fields = lines[i].substring(1, lines[i].length() - 1).split(",");
+            offset += Integer.parseInt(fields[1]);
+            result[i - 1] = text.substring(offset, offset + Integer.parseInt(fields[2]));
+        }
+        return List.of(result);
+    }
+
+    /**
+     * Polly SpeechMark 처럼 target 이 처음 나오는 위치의 UTF-8 byte offset
+     */
+    private static int byteOf(String target) {
+        return SSML.substring(0, SSML.indexOf(target)).getBytes(StandardCharsets.UTF_8).length;
+    }
+}